@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+/**
+ * Works out the time to wait between probes out of the link's recent behavior.<br />
+ * It keeps exponentially weighted moving averages (ewma) of the success rate and 
+ * of the round trip time. While the outcomes are the expected ones (successes on 
+ * a healthy link, failures on a broken one) the interval is stretched bit by bit 
+ * up to the maximum, or up to the offline maximum while the probes fail so a 
+ * broken link coming back is not noticed any later than with the fixed levels. 
+ * Right after an anomaly (a failure on a healthy link, a success 
+ * on a broken one or a round trip far longer than usual) it drops to the minimum 
+ * so the change gets confirmed as soon as possible.
+ * 
+ * @author Fabio Tezedor
+ */
+final class AdaptiveScheduler
+{
+	// weight of the newest sample
+	private static final double ALPHA = 0.2;
+	// how much the interval is stretched after each expected outcome
+	private static final double GROWTH = 1.25;
+	// a round trip this many times longer than the average is an anomaly
+	private static final double RTT_SPIKE = 3.0;
+
+	private final long min, max;
+	// the most it waits for while the last probe failed
+	private final long offlineMax;
+
+	// the link is assumed healthy to begin with
+	private double successRate = 1.0;
+	private double rtt = -1;
+	private long interval;
+
+	/**
+	 * @param offlineMax - the most it waits for while the link is down, usually the 
+	 *                     failure sleep time of level 3
+	 */
+	AdaptiveScheduler(final long min, final long max, final long offlineMax)
+	{
+		this.min = min;
+		this.max = Math.max(min, max);
+		this.offlineMax = Math.max(min, Math.min(this.max, offlineMax));
+		this.interval = min;
+	}
+
+	/**
+	 * records a successful probe
+	 * 
+	 * @param rttNanos - how long the probe took
+	 * @return time in milliseconds to wait before the next probe
+	 */
+	long success(final long rttNanos)
+	{
+		boolean spike = (rtt > 0 && rttNanos > rtt * RTT_SPIKE);
+		rtt = (rtt < 0 ? rttNanos : ALPHA * rttNanos + (1 - ALPHA) * rtt);
+		return update(1.0, spike);
+	}
+
+	/**
+	 * records a failed probe
+	 * 
+	 * @return time in milliseconds to wait before the next probe
+	 */
+	long failure()
+	{
+		return update(0.0, false);
+	}
+
+	/**
+	 * @return the current success rate ewma, from 0 to 1
+	 */
+	double successRate()
+	{
+		return successRate;
+	}
+
+	private long update(final double outcome, final boolean spike)
+	{
+		// how far the outcome is from what the link has been showing lately
+		double surprise = Math.abs(outcome - successRate);
+		successRate = ALPHA * outcome + (1 - ALPHA) * successRate;
+
+		if (spike || surprise > 0.5)
+		{
+			interval = min;
+		}
+		else
+		{
+			// a sustained outage is as stable as a healthy link but the recovery must be caught early
+			interval = Math.min((outcome > 0 ? max : offlineMax), (long) Math.ceil(interval * GROWTH));
+		}
+		return interval;
+	}
+}
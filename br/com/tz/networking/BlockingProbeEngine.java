@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Base class of the engines whose probes block the calling thread.<br />
+ * Probes handed back as futures run on the executor shared by all monitors, 
+ * each one taking a thread of its own while in flight. Probes the caller is going to wait 
+ * for anyway run on the caller's thread.
+ * 
+ * @author Fabio Tezedor
+ */
+abstract class BlockingProbeEngine implements ProbeEngine
+{
+	// probes are blocking so each one needs a thread of its own while in flight
+	private static final ExecutorService es = ProbeRuntime.executor();
+
+	/**
+	 * probes the url node blocking the calling thread until it's done
+	 * 
+	 * @param node - the url node to be probed
+	 * @throws IOException if the node could not be reached
+	 */
+	abstract void reach(UrlNode node) throws IOException;
+
+	@Override
+	public CompletableFuture<UrlNode> probe(final UrlNode node)
+	{
+		final CompletableFuture<UrlNode> future = new CompletableFuture<UrlNode>();
+		es.execute(() -> {
+			try
+			{
+				// a probe cancelled before getting a thread is not even started
+				if (future.isDone()) return;
+				reach(node);
+				future.complete(node);
+			}
+			catch (Throwable t)
+			{
+				future.completeExceptionally(t);
+			}
+			finally
+			{
+				node.release();
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public void probeAndWait(final UrlNode node) throws IOException, InterruptedException
+	{
+		// a platform thread blocked on a socket does not hear interrupts, so the probe is 
+		// handed over and waited for. it can then be called off, though it runs to its end
+		if (!ProbeRuntime.virtual())
+		{
+			ProbeEngine.super.probeAndWait(node);
+			return;
+		}
+		// interrupting a virtual thread closes its socket, so there's no need to hand it 
+		// over to another thread when the caller is going to wait anyway
+		try
+		{
+			reach(node);
+		}
+		finally
+		{
+			node.release();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * An event of a monitor as handed over to the subscribers of its publisher.
+ * 
+ * @author Fabio Tezedor
+ */
+public final class ConnectivityEvent
+{
+	// name of the monitor the event comes from
+	public final String monitor;
+	public final ICMEvent event;
+	public final ICMStatus status;
+
+	ConnectivityEvent(final String monitor, final ICMEvent event, final ICMStatus status)
+	{
+		this.monitor = monitor;
+		this.event = event;
+		this.status = status;
+	}
+
+	@Override
+	public String toString()
+	{
+		return monitor + ": " + event + " " + status;
+	}
+}
@@ -0,0 +1,1004 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import br.com.tz.networking.InternetConnectivityMonitor.Configuration;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+import br.com.tz.networking.InternetConnectivityMonitor.State;
+
+/**
+ * A connectivity monitor of its own.<br />
+ * Each instance has its own configuration, urls, state and listeners so 
+ * several target groups (the VPN side and the public internet, say) can be 
+ * watched in the same JVM. None of them holds a thread: their probe cycles 
+ * are fired by a timer and run on an executor, both shared by all monitors.
+ * The static {@code ICM} facade is backed by a default instance.
+ * <p/>
+ * The thread mode and the dns cache ttl are process-wide: they are taken from 
+ * the static configuration (icm.cfg) only, a monitor's own values for them are 
+ * ignored and {@link Builder#build()} warns when they differ.
+ * <p/>
+ * e.g.:
+ * <code>ConnectivityMonitor vpn = ConnectivityMonitor.builder().name("vpn").urls(vpnUrls).build();</code>
+ * 
+ * @author Fabio Tezedor
+ */
+public final class ConnectivityMonitor
+{
+	private final String name;
+	private InternetConnectivityMonitorConfiguration cfg;
+
+	private volatile State state = State.STOPPED;
+	private volatile boolean running = false;
+	private volatile boolean paused = false;
+	private volatile boolean online = false;
+	// online but with too much loss or latency
+	private volatile boolean degraded = false;
+	private boolean innerUrlsInUse = false;
+	// urls' circular list. it's a field so the urls' statistics can be read from other threads
+	private volatile UrlCircularList clUrls = null;
+
+	// registered listeners. the ones registered by ICM itself don't keep the monitor running
+	private final ListenerRegistry listeners = new ListenerRegistry();
+	// parallel listeners read the notifications from here
+	private final EventBus bus = new EventBus();
+	// reactive subscriptions alive. they keep the monitor running just like listeners
+	private int subscriptions = 0;
+
+	// what a probe cycle needs from one cycle to the next
+	private ProbeEngine engine;
+	private QuorumWindow quorum;
+	private QualityWindow quality;
+	private FlapDamper damper;
+	// the release of the change held back by the damper
+	private ScheduledFuture<?> release = null;
+	private HedgedProber hedger;
+	private AdaptiveScheduler scheduler;
+	private ProbeTicker ticker;
+	private int failCounter; // http connection failure counter
+	// the next cycle waiting for its tick
+	private ScheduledFuture<?> next = null;
+	// probes left to be fired in a row, at BURST_INTERVAL, after the link came back up
+	private int burst = 0;
+	private static final int BURST_SIZE = 3;
+	private static final long BURST_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+	// thread running the cycle in flight (if any). it gets interrupted to call the probe off
+	private Thread cycling = null;
+	// how long stop() waits for the cycle in flight to come to an end
+	private static final long STOP_TIMEOUT = TimeUnit.SECONDS.toNanos(12);
+
+	// counters read through JMX. the probes only update them
+	final AtomicLong probes = new AtomicLong();
+	// probes per second seen over the last window. the cycles roll it so reading it changes nothing
+	private static final long RATE_WINDOW = TimeUnit.SECONDS.toNanos(10);
+	private volatile long rateStart = System.nanoTime(), rateProbes = 0;
+	private volatile double probeRate = 0;
+	final AtomicLongArray failures = new AtomicLongArray(ProbeResult.Failure.values().length);
+	// events reported, by event and status: [event * STATUSES + status]
+	static final int STATUSES = ICMStatus.values().length;
+	final AtomicLongArray transitions = new AtomicLongArray(ICMEvent.values().length * STATUSES);
+	// how long each call to a listener or subscriber took
+	final LatencyHistogram listenerTimes = new LatencyHistogram();
+	private final MonitorManagement management = new MonitorManagement(this);
+	// monitors started and not stopped yet. they are the ones whose metrics are exported
+	static final List<ConnectivityMonitor> started = new java.util.concurrent.CopyOnWriteArrayList<ConnectivityMonitor>();
+
+	private ConnectivityMonitor(final String name, final InternetConnectivityMonitorConfiguration cfg)
+	{
+		this.name = name;
+		this.cfg = cfg;
+	}
+
+	/**
+	 * @return a builder of independent monitors
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * @return the name given to the monitor
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	public State getState()
+	{
+		return state;
+	}
+
+	/**
+	 * @return {@code true} if the connectivity was last seen online
+	 */
+	public boolean isOnline()
+	{
+		return online;
+	}
+
+	/**
+	 * @return {@code true} if the connectivity is online but its loss or latency 
+	 * crossed the degraded thresholds
+	 */
+	public boolean isDegraded()
+	{
+		return online && degraded;
+	}
+
+	// the status as last reported
+	private ICMStatus status()
+	{
+		return (online ? (degraded ? ICMStatus.DEGRADED : ICMStatus.ONLINE) : ICMStatus.OFFLINE);
+	}
+
+	/**
+	 * replaces the configuration. it takes effect on the next start
+	 * 
+	 * @throws IllegalArgumentException if its settings don't go together, the current 
+	 *         configuration is kept then
+	 */
+	synchronized void configure(final InternetConnectivityMonitorConfiguration cfg)
+	{
+		validate(cfg);
+		this.cfg = cfg;
+	}
+
+	/**
+	 * checks the settings that depend on each other. each setting on its own is checked 
+	 * by its setter
+	 * 
+	 * @throws IllegalArgumentException if they don't go together
+	 */
+	static void validate(final InternetConnectivityMonitorConfiguration cfg)
+	{
+		if (cfg.getQuorumSize() > cfg.getQuorumTargets())
+			throw new IllegalArgumentException("Quorum must be between 1 and " + cfg.getQuorumTargets());
+		if (cfg.getDegradedLossExit() > cfg.getDegradedLossEnter())
+			throw new IllegalArgumentException("Degraded loss exit must not be greater than " + cfg.getDegradedLossEnter());
+		if (cfg.getDegradedLatencyExit() > cfg.getDegradedLatencyEnter())
+			throw new IllegalArgumentException("Degraded latency exit must not be greater than " + cfg.getDegradedLatencyEnter());
+		if (cfg.getDampingPenalty() > 0 && cfg.getDampingReuse() >= cfg.getDampingSuppress())
+			throw new IllegalArgumentException("Damping reuse must be lower than " + cfg.getDampingSuppress());
+	}
+
+	/**
+	 * gives back what is known about each url being probed: failures, number of probes
+	 * and how many bytes they cost
+	 * 
+	 * @return one {@code TargetStatistics} per url, empty if the monitor has never run
+	 */
+	public java.util.List<TargetStatistics> getTargetStatistics()
+	{
+		UrlCircularList lst = clUrls;
+		if (lst == null) return java.util.Collections.emptyList();
+		return lst.snapshot().stream().map(TargetStatistics::new).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the urls being probed, empty if the monitor has never run
+	 */
+	List<UrlNode> targets()
+	{
+		UrlCircularList lst = clUrls;
+		return (lst == null ? java.util.Collections.<UrlNode>emptyList() : lst.snapshot());
+	}
+
+	/**
+	 * register listeners to be notified about connectivity status changes. the first
+	 * one starts the monitor
+	 * 
+	 * @param listener a class that implements the interface
+	 *                 InternetConectivityChangeListener
+	 */
+	public synchronized void addConnectivityChangeListener(final InternetConectivityChangeListener listener)
+	{
+		if ( cfg.getMaxListenersNumber() > 0 && listeners.size() >= cfg.getMaxListenersNumber() ) 
+			throw new RuntimeException("There is no room for more listeners");
+
+		if (listeners.contains(listener))
+		{
+			if (InternetConnectivityMonitor.verbose)
+				System.out.println(
+						"You (" + listener.getClass().getName() + "@" + listener.getClass().hashCode() + ") again?");
+			return;		
+		}
+
+		start();
+
+		ListenerNotifier notifier;
+		if ( ! cfg.getNotificantionMode().equalsIgnoreCase("parallel") )
+		{
+			notifier = new RegularListenerNotifier(listener);
+		}
+		else
+		{
+			notifier = bus.subscribe(listener, listenerTimes);
+		}
+		listeners.add(listener, notifier, false);
+
+		printSlots();
+
+		notifier.notify((isDegraded() ? ICMEvent.CON_DEGRADED : ICMEvent.CON_CHANGED), status());
+	}
+
+	/**
+	 * registers a listener that is notified by the monitor's own thread and that 
+	 * neither starts the monitor nor keeps it running
+	 */
+	synchronized void addInternalListener(final InternetConectivityChangeListener listener)
+	{
+		listeners.add(listener, new RegularListenerNotifier(listener), true);
+	}
+
+	/**
+	 * unregister listeners. once the last one is gone the monitor is paused
+	 * 
+	 * @param listener - a class that implements the interface
+	 *                 InternetConectivityChangeListener
+	 */
+	public synchronized void removeConnectivityChangeListener(final InternetConectivityChangeListener listener)
+	{
+		ListenerNotifier notifier = listeners.remove(listener);
+		if (notifier != null) bus.unsubscribe(notifier);
+
+		printSlots();
+		
+		// if there are no listeners left the monitor can be paused
+		if ( listeners.size() <= 0 && subscriptions <= 0 ) pause();
+	}
+
+	/**
+	 * @param overflow - what becomes of the events a subscriber did not ask for yet
+	 * @return a publisher of this monitor's events. subscribing starts the monitor
+	 */
+	public ConnectivityPublisher publisher(final ConnectivityPublisher.Overflow overflow)
+	{
+		return new ConnectivityPublisher(this, overflow);
+	}
+
+	synchronized void subscribe(final java.util.concurrent.Flow.Subscriber<? super ConnectivityEvent> subscriber, 
+			final ConnectivityPublisher.Overflow overflow)
+	{
+		start();
+		// the cursor is taken holding the lock events are published with, so not a single one is missed
+		FlowSubscription s = new FlowSubscription(this, bus, bus.cursor(), subscriber, overflow, 
+				new ConnectivityEvent(name, (isDegraded() ? ICMEvent.CON_DEGRADED : ICMEvent.CON_CHANGED), status()));
+		bus.attach(s);
+		subscriptions++;
+		// onSubscribe is called by the subscription's drain
+		s.signal();
+	}
+
+	synchronized void unsubscribe(final FlowSubscription subscription)
+	{
+		// cancelling twice is no harm
+		if (!bus.unsubscribe(subscription)) return;
+		subscriptions--;
+		// if there is nobody left the monitor can be paused
+		if ( listeners.size() <= 0 && subscriptions <= 0 ) pause();
+	}
+
+	int listenerCount()
+	{
+		return listeners.size();
+	}
+
+	int notifierBacklog()
+	{
+		int n = 0;
+		for (ListenerNotifier l : listeners.snapshot()) n += l.backlog();
+		return n;
+	}
+
+	private void printSlots()
+	{
+		int used = listeners.size(), max = cfg.getMaxListenersNumber();
+		if (InternetConnectivityMonitor.verbose && max <= 0)
+			System.out.format( "%s listeners: %d.\n", name, used );
+		else if (InternetConnectivityMonitor.verbose)
+			System.out.format( "%s listeners: %s out of %d. %s still available.\n", name,
+					used + " slot" + (used > 1 ? "s" : ""), max, 
+					max - used + " slot" + (max - used > 1 ? "s" : "") );
+	}
+
+	/**
+	 * start the monitor
+	 */
+	public synchronized void start()
+	{
+		if (paused) resume();
+		if (running) return;
+		// a cycle still finishing after stop() was called
+		if (state != State.STOPPED) return;
+
+		List<String> urls = (cfg.getUrls() == null || cfg.getUrls().isEmpty() ? Configuration.builtinUrls : cfg.getUrls());
+		innerUrlsInUse = (urls == Configuration.builtinUrls);
+		// urls' circular list
+		clUrls = new UrlCircularList(UrlNode.toList(urls, cfg), cfg.getSelectionPolicy());
+
+		// the engine that actually reaches the urls. the ones that aren't http go to their probes
+		engine = SpiProbeEngine.around(ProbeEngine.create(cfg.getProbeEngine()));
+
+		// when on, the status is decided by a quorum of distinct urls instead of the failure counter
+		quorum = (cfg.getQuorumSize() > 0 ? 
+				new QuorumWindow(cfg.getQuorumSize(), cfg.getQuorumTargets(), cfg.getQuorumWindow() * 1000L) : null);
+
+		// when on, the link quality is judged on the latest probes
+		quality = (cfg.getDegradedWindow() > 0 ? new QualityWindow(cfg.getDegradedWindow(), 
+				cfg.getDegradedLossEnter(), cfg.getDegradedLossExit(), cfg.getDegradedPercentile(), 
+				cfg.getDegradedLatencyEnter(), cfg.getDegradedLatencyExit()) : null);
+		degraded = false;
+
+		// when on, connectivity changes of a flapping link are held back
+		damper = (cfg.getDampingDwell() > 0 || cfg.getDampingPenalty() > 0 ? new FlapDamper(cfg.getDampingDwell(), 
+				cfg.getDampingPenalty(), cfg.getDampingSuppress(), cfg.getDampingReuse(), cfg.getDampingHalfLife() * 1000L) : null);
+
+		// hedged probing is on when there are other nodes to hedge with
+		hedger = (cfg.getHedgeFanout() > 0 ? new HedgedProber(engine, cfg.getHedgeDelay(), cfg.getHedgeFanout(), quorum) : null);
+
+		// when adaptive, the time between probes follows the link's stability instead of the fixed levels
+		scheduler = (cfg.getScheduleMode().equalsIgnoreCase("adaptive") ? 
+				new AdaptiveScheduler(cfg.getMinSleepTime(), cfg.getMaxSleepTime(), cfg.getFailureSleepTimeL3()) : null);
+
+		// probes are fired at a fixed rate instead of sleeping after each one
+		ticker = new ProbeTicker();
+
+		failCounter = 0;
+
+		running = true;
+		state = State.RUNNING;
+
+		management.register();
+		ConnectivityMonitor.started.add(this);
+		if (cfg.getMetricsPort() > 0) MetricsExporter.start(cfg.getMetricsPort());
+
+		// the kernel knows about cables pulled out long before the probes fail
+		if (cfg.getLinkPollInterval() > 0) LinkWatcher.watch(this, cfg.getBindInterface(), cfg.getLinkPollInterval());
+
+		// notify listeners the monitor has been started
+		notifyListeners(ICMEvent.MON_STARTED, status());
+
+		schedule(0);
+	}
+
+	/**
+	 * stops the monitor
+	 * 
+	 * @return {@code true} if the monitor has come to a stop
+	 */
+	public synchronized boolean stop()
+	{
+		if (running) 
+		{
+			running = false;
+			paused = false;
+			// nothing in flight, no cycle is going to do it
+			if (state == State.PAUSED || (next != null && next.cancel(false))) finish();
+			// the probe in flight is called off so the cycle comes to an end right away
+			else if (cycling != null) cycling.interrupt();
+		}
+		// a listener called from within the cycle would be waiting for itself
+		if (cycling == Thread.currentThread()) return false;
+		// finish() wakes us up as soon as the cycle in flight (if any) is over
+		long deadline = System.nanoTime() + STOP_TIMEOUT, left;
+		while (state != State.STOPPED && (left = deadline - System.nanoTime()) > 0)
+		{
+			try
+			{
+				TimeUnit.NANOSECONDS.timedWait(this, left);
+			} 
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return state == State.STOPPED;
+	}
+
+	/**
+	 * pause monitor
+	 */
+	public synchronized void pause()
+	{
+		if (!running || paused) return;
+		paused = true;
+		// the cycle waiting for its tick is called off. the probe of one in flight is 
+		// interrupted so it finds out right away
+		if (next != null && next.cancel(false)) suspend();
+		else if (cycling != null) cycling.interrupt();
+	}
+
+	/**
+	 * resume monitoring previously paused
+	 */
+	public synchronized void resume()
+	{
+		// if it's not running there's no point in trying to resume it
+		if (!running || !paused) return;
+		paused = false;
+		// the cycle in flight did not get to pause it so it goes on by itself
+		if (state != State.PAUSED) return;
+		state = State.RUNNING;
+		// the ticks missed while paused don't count
+		ticker.reset();
+		notifyListeners(ICMEvent.MON_RESUMED, status());
+		schedule(0);
+	}
+
+	private void suspend()
+	{
+		state = State.PAUSED;
+		notifyListeners(ICMEvent.MON_PAUSED, status());
+	}
+
+	private void finish()
+	{
+		LinkWatcher.unwatch(this);
+		// changes held back don't matter anymore
+		if (release != null) release.cancel(false);
+		release = null;
+		management.unregister();
+		ConnectivityMonitor.started.remove(this);
+		MetricsExporter.stopIfIdle();
+		if (InternetConnectivityMonitor.verbose) 
+			System.out.println(name + ": " + ticker.skipped() + " probe ticks were skipped because of slow probes");
+		state = State.STOPPED;
+		notifyListeners(ICMEvent.MON_STOPPED, status());
+		// stop() might be waiting for it
+		notifyAll();
+	}
+
+	// the cycle is handed over to the executor when its tick fires
+	private void schedule(final long nanos)
+	{
+		next = ProbeRuntime.timer().schedule(() -> ProbeRuntime.executor().execute(this::cycle), nanos, TimeUnit.NANOSECONDS);
+	}
+
+	private void cycle()
+	{
+		synchronized (this)
+		{
+			if (!running) { finish(); return; }
+			if (paused) { suspend(); return; }
+			cycling = Thread.currentThread();
+		}
+		long nanos;
+		try
+		{
+			nanos = probe();
+		}
+		catch (RuntimeException e)
+		{
+			// a faulty engine, probe or listener must not bring the monitor to a silent halt
+			System.err.println(name + ": the probe cycle failed unexpectedly");
+			e.printStackTrace();
+			nanos = ticker.next(cfg.getFailureSleepTimeL1());
+		}
+		synchronized (this)
+		{
+			cycling = null;
+			// an interrupt that came after the probe was over must not reach the executor's next task
+			Thread.interrupted();
+			if (!running) finish();
+			else if (paused) suspend();
+			else
+			{
+				if (burst > 0)
+				{
+					burst--;
+					// the regular ticks start over once the burst is over
+					ticker.reset();
+					nanos = Math.min(nanos, BURST_INTERVAL);
+				}
+				schedule(nanos);
+			}
+		}
+	}
+
+	/**
+	 * probes right away instead of waiting for the next tick
+	 */
+	synchronized void probeNow()
+	{
+		if (!running || paused) return;
+		// a cycle in flight is as good as a forced one
+		if (next != null && next.cancel(false)) schedule(0);
+	}
+
+	/**
+	 * called by the link watcher when the link the monitor depends on goes down or
+	 * comes back up. a link down means offline right away, a link up fires a burst 
+	 * of probes to find out whether the connectivity is back
+	 */
+	synchronized void linkChanged(final boolean up)
+	{
+		if (!running || paused) return;
+		if (InternetConnectivityMonitor.verbose) System.out.println(name + ": link is " + (up ? "up" : "down"));
+		if (!up)
+		{
+			notifyListeners(ICMEvent.CON_CHANGED, ICMStatus.OFFLINE);
+			return;
+		}
+		burst = BURST_SIZE;
+		// the cycle waiting for its tick is brought forward. one in flight takes the burst up at its end
+		if (next != null && next.cancel(false)) schedule(0);
+	}
+
+	// holds the last event occurred
+	// it's intended to be used by the notifyListeners method
+	private int lastEvent;
+
+	/**
+	 * notify all registered listeners about the connectivity status change
+	 */
+	private synchronized void notifyListeners(final ICMEvent evt, final ICMStatus stt)
+	{
+		final boolean simulate = InternetConnectivityMonitor.simulate;
+		int event = evt.hashCode();
+		/* a negative value means connection is offline */
+		if ( stt == ICMStatus.OFFLINE || simulate ) event *= -1;
+		// the quality of a link that went down starts over once it comes back
+		if ( stt == ICMStatus.OFFLINE && quality != null ) quality.reset();
+		// if event and status are the same as the previous one, just get the hell out right away
+		if (lastEvent == event && evt != ICMEvent.CON_FAILURE) return;
+		// otherwise save them
+		lastEvent = event;
+		online = (event > 0);
+		if ( evt == ICMEvent.CON_CHANGED || evt == ICMEvent.CON_DEGRADED ) degraded = (evt == ICMEvent.CON_DEGRADED);
+		ICMEvent reported = evt;
+		// connectivity changes of a flapping link may be held back for a while
+		if ( damper != null && FlapDamper.damps(evt) )
+		{
+			reported = damper.offer(evt, stt, System.currentTimeMillis());
+			scheduleRelease();
+			if ( reported == null ) return;
+		}
+		dispatch(reported, stt);
+	}
+
+	// the inline listeners are notified one by one, the parallel ones get the event from 
+	// the bus no matter how many there are. neither the walk nor the bus allocate anything, 
+	// waking the bus' subscribers up hands one task (always the same) over to the executor
+	private void dispatch(final ICMEvent evt, final ICMStatus stt)
+	{
+		final ICMStatus status = (InternetConnectivityMonitor.simulate ? ICMStatus.OFFLINE : stt);
+		final ListenerNotifier[] notifiers = listeners.inline();
+		for (int i = 0; i < notifiers.length; i++)
+		{
+			long t0 = System.nanoTime();
+			try
+			{
+				notifiers[i].notify(evt, status);
+			}
+			catch (RuntimeException e)
+			{
+				// a faulty listener must hold neither the other ones nor the monitor up
+				e.printStackTrace();
+			}
+			listenerTimes.record(System.nanoTime() - t0);
+		}
+		bus.publish(evt, status);
+		transitions.incrementAndGet(evt.ordinal() * STATUSES + status.ordinal());
+	}
+
+	// the change held back by the damper (if any) is reported as soon as it can be
+	private void scheduleRelease()
+	{
+		if (release != null) release.cancel(false);
+		long due = damper.due(System.currentTimeMillis());
+		release = (due < 0 ? null : ProbeRuntime.timer().schedule(
+				() -> ProbeRuntime.executor().execute(this::release), due, TimeUnit.MILLISECONDS));
+	}
+
+	private synchronized void release()
+	{
+		if (!running || damper == null) return;
+		if (damper.release(System.currentTimeMillis())) dispatch(damper.event(), damper.status());
+		scheduleRelease();
+	}
+
+	/**
+	 * counts a probe and, once the window is over, works out the probes per second it saw
+	 */
+	private void countProbe()
+	{
+		long n = probes.incrementAndGet() - 1, now = System.nanoTime(), start = rateStart;
+		if (now - start < RATE_WINDOW) return;
+		probeRate = (n - rateProbes) * 1e9 / (now - start);
+		rateProbes = n;
+		rateStart = now;
+	}
+
+	/**
+	 * @return probes per second over the last 10 seconds window. while the monitor is paused 
+	 *         or sleeping long no probe closes the window, so the rate so far is given instead
+	 */
+	double probesPerSecond()
+	{
+		long now = System.nanoTime(), start = rateStart;
+		if (now - start < RATE_WINDOW) return probeRate;
+		return (probes.get() - rateProbes) * 1e9 / (now - start);
+	}
+
+	/**
+	 * @return connectivity changes held back by flap damping and superseded by newer ones, so never reported
+	 */
+	public long getDampedEvents()
+	{
+		FlapDamper damper = this.damper;
+		return (damper == null ? 0 : damper.damped());
+	}
+
+	/**
+	 * does the actual job: probes the next url and works out the connectivity status
+	 * 
+	 * @return time in nanoseconds to wait for before the next probe
+	 */
+	private long probe()
+	{
+		final byte fmn_l1 = cfg.getMaxNumberFailuresL1(), fmn_l2 = cfg.getMaxNumberFailuresL2();
+
+		final short ssi = cfg.getSuccessSleepTime(), 
+				fsi_l1 = (cfg.getWaitOnFailure() ? cfg.getFailureSleepTimeL1() : 100),
+				fsi_l2 = cfg.getFailureSleepTimeL2(), 
+				fsi_l3 = cfg.getFailureSleepTimeL3();
+
+		final boolean verbose = InternetConnectivityMonitor.verbose;
+
+		UrlNode urlNode = null;
+		long nanos = 0;
+
+		if (clUrls.size() <= 0)
+		{
+			(new java.lang.IndexOutOfBoundsException("URLs list is empty")).printStackTrace();
+			// if urls list is empty let's use the inner defined ones
+			if (!innerUrlsInUse)
+			{
+				innerUrlsInUse = true;
+				clUrls = new UrlCircularList(UrlNode.toList(Configuration.builtinUrls, cfg), cfg.getSelectionPolicy());
+				System.err.print("The urls list got empty then the inner defined urls will be loaded");
+			}
+			// if urls list is empty there's nothing to do but stop the 
+			// monitor and notify everyone the connectivity is broken
+			else
+			{
+				running = false;
+				notifyListeners(ICMEvent.MON_ABORTED, ICMStatus.OFFLINE);
+				System.err.print("The urls list got empty thus the monitor cannot do its job and will be ended");
+				return 0;
+			}
+		}
+
+		try
+		{
+			long t0 = System.nanoTime();
+			if (hedger == null)
+			{
+				urlNode = clUrls.select();
+				if (verbose) System.out.println(name + ": probing " + urlNode.url);
+				countProbe();
+
+				engine.probeAndWait(urlNode);
+				urlNode.succeeded(System.nanoTime() - t0);
+				if (quorum != null) quorum.record(urlNode.id, true, System.currentTimeMillis());
+			}
+			else
+			{
+				// nodes still busy with probes that lost a previous race are skipped
+				urlNode = clUrls.acquireNext();
+				if (urlNode == null) return ticker.next(100);
+				if (verbose) System.out.println(name + ": probing " + urlNode.url + " (hedged)");
+				countProbe();
+
+				// from now on urlNode is the one that answered first
+				urlNode = hedger.probe(urlNode, clUrls);
+			}
+
+			// reset the url failure counter since the connection was successfully established
+			urlNode.failCounter = 0;
+			boolean poor = (quality != null && quality.record(System.nanoTime() - t0));
+
+			// a single success is enough unless a quorum of urls is required
+			if (quorum == null || quorum.verdict(System.currentTimeMillis()) == ICMStatus.ONLINE)
+			{
+				// reset the global failure counter as well
+				failCounter = 0;
+
+				// notify the Internet connection is up, unless it is too lossy or too slow
+				if (poor) notifyListeners(ICMEvent.CON_DEGRADED, ICMStatus.DEGRADED);
+				else notifyListeners(ICMEvent.CON_CHANGED, ICMStatus.ONLINE);
+			}
+
+			// let's wait for the next tick before performing another check
+			long pause = (scheduler == null ? ssi : scheduler.success(System.nanoTime() - t0));
+			nanos = ticker.next(pause);
+		} 
+		catch (java.net.MalformedURLException e)
+		{
+			System.err.println(urlNode.url + ": " + (new RuntimeException(e)).getMessage());
+			// if url is malformed it must be popped out from the list
+			clUrls.remove(urlNode);
+		} 
+		catch (java.io.IOException e)
+		{
+			// the probe was called off by stop() or pause(), it says nothing about the connectivity
+			if (!running || paused) return 0;
+			// some engines throw exceptions with no message at all
+			String message = String.valueOf(e.getMessage());
+			// if connectivity goes down it can take awhile to get back so there's no point
+			// in get hundreds or thousands exceptions logged
+			if (!(message.contains("Network is unreachable") || e instanceof java.net.UnknownHostException))
+			{
+				System.err.println(">>> " + urlNode.url + " <<<");
+				e.printStackTrace();
+			}
+			// when hedging, all the concurrent probes have failed (and they have been recorded already)
+			int failures = (hedger == null ? 1 : hedger.failures());
+			this.failures.addAndGet(ProbeResult.classify(e).ordinal(), failures);
+			if (hedger == null) 
+			{
+				urlNode.failed();
+				if (quorum != null) quorum.record(urlNode.id, false, System.currentTimeMillis());
+			}
+			// lost probes count against the link quality and may degrade it before it goes offline
+			if (quality != null)
+			{
+				boolean poor = false;
+				for (int i = 0; i < failures; i++) poor = quality.record(-1);
+				if (poor && online && !degraded) notifyListeners(ICMEvent.CON_DEGRADED, ICMStatus.DEGRADED);
+			}
+			boolean timedOut = message.contains("timed out");
+			long pause = (scheduler == null ? -1 : scheduler.failure());
+			// if exception thrown is related to time out, increase the url failure counter
+			// but if the failure counter reached the breaker threshold, the url is left aside
+			// for a while (its circuit is opened) and another check is performed right away 
+			// using the next url on the list
+			if (timedOut)
+			{
+				System.err.println(urlNode.url + " did not respond in a timely manner");
+				// when hedging, every node that timed out has been told so already
+				if (hedger == null && urlNode.timedOut())
+				{
+					if (verbose) 
+						System.out.println("'" + urlNode.url + "' has timed out too many times and will be left aside for " 
+								+ (urlNode.coolDown() / 1000) + " secs");
+				}
+			} 
+			// a single time out does not tell much but concurrent failures do confirm the outage
+			if (!timedOut || failures > 1)
+			{
+				// if status is online, report connection failure
+				// once the connection failed the status must be reported as unknown
+				if (online) notifyListeners(ICMEvent.CON_FAILURE, ICMStatus.UNKNOWN);
+				failCounter += failures; // increase the failure counter
+				if (pause < 0) pause = (online || failCounter <= fmn_l1 ? fsi_l1 : (failCounter > fmn_l2 ? fsi_l3 : fsi_l2));
+				nanos = ticker.next(pause);
+			}
+		} 
+		catch (InterruptedException ie)
+		{
+			// the probe was called off by stop() or pause()
+			if (!running || paused) return 0;
+			ie.printStackTrace();
+		}
+		// if global failure counter is equal or greater than fmn_l1 (or a quorum of urls failed), notify
+		if (quorum == null ? failCounter >= fmn_l1 : quorum.verdict(System.currentTimeMillis()) == ICMStatus.OFFLINE)
+		{
+			notifyListeners(ICMEvent.CON_CHANGED, ICMStatus.OFFLINE);
+			// hedged failures are added up in bulk so leave room for a whole batch of them
+			if (failCounter >= Integer.MAX_VALUE - Byte.MAX_VALUE - 1)
+			{
+				failCounter = fmn_l2 + 1; // prevent overflow. although unlikely, it could happen.
+			}
+		}
+		return nanos;
+	}
+
+	/**
+	 * Builds monitors independent of each other and of the default one.<br />
+	 * Whatever is not set is taken from the built-in defaults.
+	 */
+	public static final class Builder
+	{
+		private String name = "monitor";
+		private InternetConnectivityMonitorConfiguration cfg = new InternetConnectivityMonitorConfiguration();
+
+		private Builder()
+		{
+		}
+
+		public Builder name(final String name)
+		{
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * takes the whole configuration from a file in the same format of icm.cfg
+		 */
+		public Builder configuration(final java.io.File file) throws Exception
+		{
+			this.cfg = InternetConnectivityMonitorConfiguration.importConfiguration(file);
+			return this;
+		}
+
+		// the default monitor is built out of the static configuration
+		Builder configuration(final InternetConnectivityMonitorConfiguration cfg)
+		{
+			this.cfg = cfg;
+			return this;
+		}
+
+		public Builder urls(final List<String> urls)
+		{
+			cfg.setUrls(new ArrayList<String>(urls));
+			return this;
+		}
+
+		public Builder successSleepTime(final short millis)
+		{
+			cfg.setSuccessSleepTime(millis);
+			return this;
+		}
+
+		public Builder notificationMode(final String mode)
+		{
+			cfg.setNotificantionMode(mode);
+			return this;
+		}
+
+		/**
+		 * max number of listeners accepted, 0 means no limit
+		 */
+		public Builder maxListeners(final int n)
+		{
+			cfg.setMaxListenersNumber(n);
+			return this;
+		}
+
+		public Builder probeEngine(final String engine)
+		{
+			cfg.setProbeEngine(engine);
+			return this;
+		}
+
+		public Builder probeMethod(final String method)
+		{
+			cfg.setProbeMethod(method);
+			return this;
+		}
+
+		public Builder selectionPolicy(final String policy)
+		{
+			cfg.setSelectionPolicy(policy);
+			return this;
+		}
+
+		public Builder hedging(final short delay, final byte fanout)
+		{
+			cfg.setHedgeDelay(delay);
+			cfg.setHedgeFanout(fanout);
+			return this;
+		}
+
+		/**
+		 * binds the probes to a local address so they go out through the uplink it belongs to
+		 */
+		public Builder bindAddress(final String address)
+		{
+			cfg.setBindAddress(address);
+			return this;
+		}
+
+		/**
+		 * binds the probes to the address of a network interface (eth0, wlan0, ...)
+		 */
+		public Builder bindInterface(final String iface)
+		{
+			cfg.setBindInterface(iface);
+			return this;
+		}
+
+		/**
+		 * time in milliseconds between link state checkings, 0 turns it off
+		 */
+		public Builder linkPollInterval(final short millis)
+		{
+			cfg.setLinkPollInterval(millis);
+			return this;
+		}
+
+		/**
+		 * port the metrics of all the monitors are served on (loopback only), 0 turns it off
+		 */
+		public Builder metricsPort(final int port)
+		{
+			cfg.setMetricsPort(port);
+			return this;
+		}
+
+		/**
+		 * judges the link quality on the last 'window' probes. the status turns DEGRADED once the 
+		 * loss rate (%) or the latency percentile (ms) reaches its enter threshold and gets back 
+		 * to ONLINE only once both of them drop to their exit thresholds. window 0 turns it off
+		 */
+		public Builder degraded(final short window, final byte lossEnter, final byte lossExit, 
+				final byte percentile, final short latencyEnter, final short latencyExit)
+		{
+			cfg.setDegradedWindow(window);
+			cfg.setDegradedLossEnter(lossEnter);
+			cfg.setDegradedLossExit(lossExit);
+			cfg.setDegradedPercentile(percentile);
+			cfg.setDegradedLatencyEnter(latencyEnter);
+			cfg.setDegradedLatencyExit(latencyExit);
+			return this;
+		}
+
+		/**
+		 * a status is kept for at least 'dwell' ms before another change is reported. besides, 
+		 * every change adds up 'penalty' (0 = off), which halves every 'halfLife' seconds. from 
+		 * the time it reaches 'suppress' till it decays to 'reuse' changes are held back
+		 */
+		public Builder damping(final short dwell, final short penalty, final short suppress, 
+				final short reuse, final short halfLife)
+		{
+			cfg.setDampingDwell(dwell);
+			cfg.setDampingPenalty(penalty);
+			cfg.setDampingSuppress(suppress);
+			cfg.setDampingReuse(reuse);
+			cfg.setDampingHalfLife(halfLife);
+			return this;
+		}
+
+		public Builder quorum(final byte size, final byte targets, final short window)
+		{
+			cfg.setQuorumSize(size);
+			cfg.setQuorumTargets(targets);
+			cfg.setQuorumWindow(window);
+			return this;
+		}
+
+		public ConnectivityMonitor build()
+		{
+			validate(cfg);
+			// both are shared by all the monitors, see the class comment
+			if ( !cfg.getThreadMode().equalsIgnoreCase(InternetConnectivityMonitor.Configuration.threadMode) )
+			{
+				System.err.println("Monitor '" + name + "': the thread mode '" + cfg.getThreadMode() 
+					+ "' is ignored, it is process-wide and '" + InternetConnectivityMonitor.Configuration.threadMode + "' is in use");
+			}
+			if ( cfg.getDnsCacheTtl() != InternetConnectivityMonitor.Configuration.dnsCacheTtl )
+			{
+				System.err.println("Monitor '" + name + "': the dns cache ttl " + cfg.getDnsCacheTtl() 
+					+ " is ignored, it is process-wide and " + InternetConnectivityMonitor.Configuration.dnsCacheTtl + " is in use");
+			}
+			return new ConnectivityMonitor(name, cfg);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.Map;
+
+/**
+ * Management interface of a monitor. Each running monitor is registered as
+ * br.com.tz.networking:type=ConnectivityMonitor,name=&lt;monitor's name&gt;
+ * (the default one is named ICM) so it can be watched and driven through 
+ * jconsole, VisualVM or any other JMX client.<br />
+ * Counters are updated by the probes as they go, everything else is worked 
+ * out only when it is read.
+ * 
+ * @author Fabio Tezedor
+ */
+public interface ConnectivityMonitorMXBean
+{
+	/**
+	 * @return RUNNING, PAUSED or STOPPED
+	 */
+	String getState();
+
+	/**
+	 * @return ONLINE, DEGRADED or OFFLINE
+	 */
+	String getStatus();
+
+	/**
+	 * @return number of probes made since the monitor was created
+	 */
+	long getProbes();
+
+	/**
+	 * @return probes per second over the last 10 seconds, the same whoever reads it
+	 */
+	double getProbesPerSecond();
+
+	/**
+	 * @return number of failed probes by kind of failure (DNS, CONNECT, TIMEOUT, ...)
+	 */
+	Map<String, Long> getFailuresByType();
+
+	/**
+	 * @return failure counter of each url
+	 */
+	Map<String, Integer> getFailCounters();
+
+	/**
+	 * @return p50, p90, p99 and max latency in microseconds of each url
+	 */
+	Map<String, long[]> getLatencyPercentiles();
+
+	/**
+	 * @return p50, p90, p99 and max latency in microseconds of all probes of all monitors
+	 */
+	long[] getGlobalLatencyPercentiles();
+
+	/**
+	 * @return number of listeners registered
+	 */
+	int getListenerCount();
+
+	/**
+	 * @return notifications handed over to the listeners that were not delivered yet
+	 */
+	int getNotifierBacklog();
+
+	/**
+	 * @return connectivity changes held back by flap damping and superseded by newer ones, so never reported
+	 */
+	long getDampedEvents();
+
+	void pause();
+
+	void resume();
+
+	/**
+	 * probes right away instead of waiting for the next tick
+	 */
+	void forceProbe();
+}
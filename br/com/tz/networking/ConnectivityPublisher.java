@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes a monitor's events to reactive subscribers.<br />
+ * Each subscription reads the monitor's event bus at its own pace and only 
+ * hands events over as the subscriber requests them, so a slow subscriber 
+ * never holds the monitor up. What happens to the events that come while 
+ * there is no demand is up to the overflow policy. Signals to a subscriber 
+ * run on the shared executor, one at a time. Subscribing starts the monitor 
+ * and subscriptions last until they are cancelled, even across restarts.<br />
+ * A monitor that aborts (its urls list got empty) is over for good: its 
+ * subscribers get the MON_ABORTED event, as far as their demand allows, and 
+ * then onError with an IllegalStateException. Events not requested by then 
+ * are dropped and the subscriptions are cancelled. onComplete is never 
+ * signalled since stopping a monitor does not end its subscriptions.
+ * 
+ * @author Fabio Tezedor
+ */
+public final class ConnectivityPublisher implements Flow.Publisher<ConnectivityEvent>
+{
+	/**
+	 * what becomes of the events a subscriber did not ask for yet
+	 */
+	public static enum Overflow
+	{
+		/**
+		 * connectivity changes in a row are conflated so the subscriber gets the newest 
+		 * status without missing that it changed in the meantime. monitor events are kept
+		 */
+		CONFLATE,
+		/**
+		 * events are kept and, once too many of them pile up, the oldest ones are dropped
+		 */
+		DROP_OLDEST,
+		/**
+		 * events that come while there is no demand are dropped
+		 */
+		DROP_LATEST
+	}
+
+	private final ConnectivityMonitor monitor;
+	private final Overflow overflow;
+
+	ConnectivityPublisher(final ConnectivityMonitor monitor, final Overflow overflow)
+	{
+		if (overflow == null) throw new IllegalArgumentException("Invalid overflow policy 'null'");
+		this.monitor = monitor;
+		this.overflow = overflow;
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super ConnectivityEvent> subscriber)
+	{
+		if (subscriber == null) throw new NullPointerException("subscriber");
+		monitor.subscribe(subscriber, overflow);
+	}
+}
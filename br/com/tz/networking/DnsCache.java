@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the addresses the urls' hosts resolve to for a limited time (ttl).<br />
+ * Entries are refreshed in the background once three quarters of their ttl
+ * have gone by so probes don't have to wait for the resolver while the entry
+ * is in use. Only missing or expired entries are resolved by the caller.
+ * 
+ * @author Fabio Tezedor
+ */
+final class DnsCache
+{
+	private static final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<String, Entry>();
+
+	// a single thread is more than enough to keep the entries fresh
+	private static final ExecutorService refresher = Executors.newSingleThreadExecutor(
+			r -> {
+					Thread t = new Thread(r, "ICM-DnsRefresher");
+					t.setDaemon(true);
+					return t;
+				}
+			);
+
+	private DnsCache()
+	{
+	}
+
+	/**
+	 * gives back the address the host resolves to
+	 * 
+	 * @param host - host name (or literal address)
+	 * @return the host's address
+	 * @throws UnknownHostException if the host could not be resolved
+	 */
+	static InetAddress resolve(final String host) throws UnknownHostException
+	{
+		final long ttl = InternetConnectivityMonitor.Configuration.dnsCacheTtl * 1000000000L;
+		// caching turned off
+		if (ttl <= 0) return InetAddress.getByName(host);
+
+		final long now = System.nanoTime();
+		final Entry e = cache.get(host);
+		if (e != null && e.expires - now > 0)
+		{
+			if (now - e.refreshAt >= 0 && e.refreshing.compareAndSet(false, true))
+			{
+				refresher.execute(() -> refresh(host, e, ttl));
+			}
+			return e.address;
+		}
+
+		InetAddress address = InetAddress.getByName(host);
+		cache.put(host, new Entry(address, now, ttl));
+		return address;
+	}
+
+	private static void refresh(final String host, final Entry e, final long ttl)
+	{
+		try
+		{
+			cache.put(host, new Entry(InetAddress.getByName(host), System.nanoTime(), ttl));
+		}
+		catch (UnknownHostException ex)
+		{
+			// the current entry is kept until it expires. it can be tried again meanwhile
+			e.refreshing.set(false);
+		}
+	}
+
+	private static final class Entry
+	{
+		final InetAddress address;
+		final long refreshAt;
+		final long expires;
+		final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+		Entry(final InetAddress address, final long now, final long ttl)
+		{
+			this.address = address;
+			this.refreshAt = now + ttl / 4 * 3;
+			this.expires = now + ttl;
+		}
+	}
+}
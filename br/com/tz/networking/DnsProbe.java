@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends a dns query to dns://server[:port]/name and waits for the answer.<br />
+ * Any answer to the query, even one telling the name does not exist, proves 
+ * the server can be reached. Without a name the root's name servers are asked 
+ * for. Without a server (dns:///name) the name is resolved through the system 
+ * resolver instead, bypassing the dns cache.
+ * 
+ * @author Fabio Tezedor
+ */
+final class DnsProbe implements Probe
+{
+	private static final int TYPE_A = 1, TYPE_NS = 2;
+
+	@Override
+	public String[] schemes()
+	{
+		return new String[] {"dns"};
+	}
+
+	@Override
+	public int defaultPort()
+	{
+		return 53;
+	}
+
+	@Override
+	public boolean requiresHost()
+	{
+		// dns:///name asks the system's resolver
+		return false;
+	}
+
+	@Override
+	public ProbeResult probe(final URI target, final InetAddress local, final int timeout)
+	{
+		String name = (target.getPath() == null ? "" : target.getPath().replaceFirst("^/+", ""));
+		long t0 = System.nanoTime();
+		try
+		{
+			if (target.getHost() == null)
+			{
+				InetAddress.getByName(name.isEmpty() ? "localhost" : name);
+				return ProbeResult.success(System.nanoTime() - t0);
+			}
+			InetAddress server = DnsCache.resolve(target.getHost());
+			int port = (target.getPort() > 0 ? target.getPort() : defaultPort());
+			int id = ThreadLocalRandom.current().nextInt(0x10000);
+			byte[] query = query(id, name, (name.isEmpty() ? TYPE_NS : TYPE_A));
+			byte[] answer = new byte[512];
+			try (DatagramSocket socket = (local == null ? new DatagramSocket() : new DatagramSocket(new InetSocketAddress(local, 0))))
+			{
+				socket.setSoTimeout(timeout);
+				socket.send(new DatagramPacket(query, query.length, server, port));
+				long deadline = t0 + timeout * 1000000L;
+				while (true)
+				{
+					DatagramPacket packet = new DatagramPacket(answer, answer.length);
+					socket.receive(packet);
+					// stray datagrams are not the answer
+					if (packet.getLength() >= 12 && ((answer[0] & 0xff) << 8 | (answer[1] & 0xff)) == id && (answer[2] & 0x80) != 0)
+						return ProbeResult.success(System.nanoTime() - t0);
+					int left = (int) ((deadline - System.nanoTime()) / 1000000L);
+					if (left <= 0) throw new java.net.SocketTimeoutException("dns query timed out");
+					socket.setSoTimeout(left);
+				}
+			}
+		}
+		catch (UnknownHostException e)
+		{
+			return ProbeResult.failure(ProbeResult.Failure.DNS, System.nanoTime() - t0, String.valueOf(e.getMessage()));
+		}
+		catch (IOException | RuntimeException e)
+		{
+			// failures are reported, never thrown, whatever they are
+			return ProbeResult.failure(System.nanoTime() - t0, e);
+		}
+	}
+
+	// header (recursion desired, one question) followed by the question itself
+	private static byte[] query(final int id, final String name, final int type)
+	{
+		String[] labels = (name.isEmpty() ? new String[0] : name.split("\\."));
+		int size = 12 + 1 + 4;
+		for (String l : labels) size += 1 + l.length();
+		byte[] q = new byte[size];
+		q[0] = (byte) (id >> 8);
+		q[1] = (byte) id;
+		q[2] = 0x01; // rd
+		q[5] = 0x01; // qdcount
+		int i = 12;
+		for (String l : labels)
+		{
+			if (l.isEmpty() || l.length() > 63) throw new IllegalArgumentException("Invalid dns name '" + name + "'");
+			q[i++] = (byte) l.length();
+			for (int j = 0; j < l.length(); j++) q[i++] = (byte) l.charAt(j);
+		}
+		q[i++] = 0;
+		q[i++] = 0;
+		q[i++] = (byte) type;
+		q[i++] = 0;
+		q[i] = 0x01; // class IN
+		return q;
+	}
+}
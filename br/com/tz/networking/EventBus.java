@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * Hands a monitor's notifications over to its parallel listeners.<br />
+ * Much like a Disruptor, events are published once into a ring buffer 
+ * allocated up front and every subscriber reads them at its own pace, 
+ * keeping track of its own sequence. Publishing writes a single slot and 
+ * schedules (at most) one task that wakes the subscribers up, so its cost 
+ * does not depend on how many of them there are. The publisher never waits 
+ * for them: a subscriber that falls more than a whole ring behind skips the 
+ * events it lost, the newest ones are always there.
+ * 
+ * @author Fabio Tezedor
+ */
+final class EventBus
+{
+	/**
+	 * reads the bus at its own pace
+	 */
+	interface Subscriber
+	{
+		/**
+		 * called when there is something new on the bus
+		 */
+		void signal();
+	}
+
+	static final int SIZE = 1024;
+	private static final int MASK = SIZE - 1;
+
+	// values() gives back a new array on every call
+	private static final ICMEvent[] EVENTS = ICMEvent.values();
+	private static final ICMStatus[] STATUSES = ICMStatus.values();
+
+	private static final Subscriber[] EMPTY = new Subscriber[0];
+
+	// event and status ordinals packed into each slot so they are read at once
+	private final AtomicIntegerArray slots = new AtomicIntegerArray(SIZE);
+	// sequence being written and last sequence published. a slot whose sequence is 
+	// a whole ring behind 'claimed' might have been overwritten already
+	private volatile long claimed = -1, cursor = -1;
+
+	private volatile Subscriber[] subscribers = EMPTY;
+	// whether a task waking the subscribers up is on its way
+	private final AtomicBoolean waking = new AtomicBoolean();
+	// the task itself, the same one every time
+	private final Runnable waker = this::wake;
+
+	/**
+	 * publishes an event. there must be a single publisher at a time, 
+	 * the monitor calls it holding its own lock
+	 */
+	void publish(final ICMEvent event, final ICMStatus status)
+	{
+		if (subscribers.length == 0) return;
+		long seq = cursor + 1;
+		claimed = seq;
+		slots.set((int) (seq & MASK), event.ordinal() << 8 | status.ordinal());
+		cursor = seq;
+		if (waking.compareAndSet(false, true)) ProbeRuntime.executor().execute(waker);
+	}
+
+	private void wake()
+	{
+		// anything published from now on wakes them up once more
+		waking.set(false);
+		for (Subscriber s : subscribers) s.signal();
+	}
+
+	/**
+	 * @param times - where the time each call to the listener takes is recorded
+	 * @return a new subscriber. it gets the events published from now on
+	 */
+	synchronized MailboxListenerNotifier subscribe(final InternetConectivityChangeListener listener, 
+			final LatencyHistogram times)
+	{
+		MailboxListenerNotifier s = new MailboxListenerNotifier(listener, this, cursor, times);
+		attach(s);
+		return s;
+	}
+
+	/**
+	 * adds a subscriber. it must have taken cursor() as its sequence holding the 
+	 * publisher's lock, so it gets the events published from then on
+	 */
+	synchronized void attach(final Subscriber subscriber)
+	{
+		Subscriber[] ss = Arrays.copyOf(subscribers, subscribers.length + 1);
+		ss[ss.length - 1] = subscriber;
+		subscribers = ss;
+	}
+
+	/**
+	 * @return false if it was not subscribed
+	 */
+	synchronized boolean unsubscribe(final Object subscriber)
+	{
+		Subscriber[] ss = subscribers;
+		for (int i = 0; i < ss.length; i++)
+		{
+			if (ss[i] != subscriber) continue;
+			Subscriber[] copy = Arrays.copyOf(ss, ss.length - 1);
+			if (i != copy.length) copy[i] = ss[ss.length - 1];
+			subscribers = copy;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the last sequence published
+	 */
+	long cursor()
+	{
+		return cursor;
+	}
+
+	/**
+	 * @return the sequence being written
+	 */
+	long claimed()
+	{
+		return claimed;
+	}
+
+	/**
+	 * @return the packed slot of the sequence. it must be checked against claimed() afterwards
+	 */
+	int slot(final long seq)
+	{
+		return slots.get((int) (seq & MASK));
+	}
+
+	static ICMEvent event(final int slot)
+	{
+		return EVENTS[slot >>> 8];
+	}
+
+	static ICMStatus status(final int slot)
+	{
+		return STATUSES[slot & 0xff];
+	}
+}
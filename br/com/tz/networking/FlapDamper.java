@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * Keeps a flapping link from waking the listeners up on every probe.<br />
+ * Two things hold connectivity changes back. A status must be kept for 'dwell' 
+ * milliseconds before another change is reported. And, much like BGP route 
+ * damping, every change adds up a penalty that halves every 'half-life' ms. 
+ * Once it reaches 'suppress', a single CON_FLAPPING is reported and every 
+ * change after it is held back until the penalty decays to 'reuse'. Held back 
+ * changes are merged, only the newest one is reported once they can be. 
+ * It is not thread-safe, the monitor calls it holding its own lock.
+ * 
+ * @author Fabio Tezedor
+ */
+final class FlapDamper
+{
+	private final long dwell, halfLife;
+	private final double penalty, suppress, reuse, ceiling;
+
+	private double merit = 0;      // current penalty
+	private long updated = 0;      // when the penalty was last decayed
+	private long changed = Long.MIN_VALUE / 2; // when the last change was reported
+	private boolean suppressed = false;
+
+	// newest change held back, null if none
+	private ICMEvent heldEvent = null;
+	private ICMStatus heldStatus = null;
+	// last change released
+	private ICMEvent releasedEvent = null;
+	private ICMStatus releasedStatus = null;
+	// number of changes held back that a newer one superseded
+	private volatile long damped = 0;
+
+	/**
+	 * @param dwell - time in milliseconds a status is kept before another change is reported (0 = off)
+	 * @param penalty - penalty each change adds up (0 = off). failures add up half of it
+	 * @param suppress - penalty at which changes start being held back
+	 * @param reuse - penalty at which they are reported again
+	 * @param halfLife - time in milliseconds the penalty takes to halve
+	 */
+	FlapDamper(final long dwell, final int penalty, final int suppress, final int reuse, final long halfLife)
+	{
+		if ( penalty > 0 && reuse >= suppress ) 
+			throw new IllegalArgumentException("Damping reuse must be lower than " + suppress);
+		this.dwell = dwell;
+		this.penalty = penalty;
+		this.suppress = suppress;
+		this.reuse = reuse;
+		this.halfLife = Math.max(1, halfLife);
+		// no matter how much the link flaps, it is never suppressed for longer than four half-lives
+		this.ceiling = reuse * 16.0;
+	}
+
+	/**
+	 * @return the connectivity events that go through the damper
+	 */
+	static boolean damps(final ICMEvent evt)
+	{
+		return evt == ICMEvent.CON_CHANGED || evt == ICMEvent.CON_FAILURE || evt == ICMEvent.CON_DEGRADED;
+	}
+
+	/**
+	 * offers a connectivity change
+	 * 
+	 * @param now - current time in milliseconds
+	 * @return the event to be reported right away (the change itself or CON_FLAPPING), 
+	 *         null if the change is held back
+	 */
+	ICMEvent offer(final ICMEvent evt, final ICMStatus stt, final long now)
+	{
+		if ( penalty > 0 )
+		{
+			decay(now);
+			merit = Math.min(ceiling, merit + (evt == ICMEvent.CON_FAILURE ? penalty / 2 : penalty));
+			if ( !suppressed && merit >= suppress )
+			{
+				suppressed = true;
+				hold(evt, stt);
+				return ICMEvent.CON_FLAPPING;
+			}
+		}
+		if ( suppressed || now - changed < dwell )
+		{
+			hold(evt, stt);
+			return null;
+		}
+		changed = now;
+		// the change reported supersedes the one held back
+		if ( heldEvent != null ) damped++;
+		heldEvent = null;
+		return evt;
+	}
+
+	/**
+	 * @param now - current time in milliseconds
+	 * @return time in milliseconds until the change held back can be reported, -1 if none is
+	 */
+	long due(final long now)
+	{
+		if ( heldEvent == null ) return -1;
+		if ( suppressed )
+		{
+			decay(now);
+			if ( merit >= reuse ) return (long) Math.ceil(halfLife * Math.log(merit / reuse) / Math.log(2));
+		}
+		return Math.max(0, changed + dwell - now);
+	}
+
+	/**
+	 * lets the change held back go if it can
+	 * 
+	 * @param now - current time in milliseconds
+	 * @return true if it can be reported. event() and status() tell which one it is
+	 */
+	boolean release(final long now)
+	{
+		if ( suppressed )
+		{
+			decay(now);
+			if ( merit >= reuse ) return false;
+			suppressed = false;
+		}
+		if ( heldEvent == null || now - changed < dwell ) return false;
+		changed = now;
+		releasedEvent = heldEvent;
+		releasedStatus = heldStatus;
+		heldEvent = null;
+		return true;
+	}
+
+	/**
+	 * @return the last change released
+	 */
+	ICMEvent event()
+	{
+		return releasedEvent;
+	}
+
+	/**
+	 * @return the status of the last change released
+	 */
+	ICMStatus status()
+	{
+		return releasedStatus;
+	}
+
+	/**
+	 * @return connectivity changes held back by flap damping and superseded by newer ones, so never reported
+	 */
+	long damped()
+	{
+		return damped;
+	}
+
+	private void hold(final ICMEvent evt, final ICMStatus stt)
+	{
+		if ( heldEvent != null ) damped++;
+		heldEvent = evt;
+		heldStatus = stt;
+	}
+
+	private void decay(final long now)
+	{
+		if ( merit > 0 ) merit *= Math.pow(0.5, (double) (now - updated) / halfLife);
+		updated = now;
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.tz.networking.ConnectivityPublisher.Overflow;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * A reactive subscriber's subscription to a monitor's event bus.<br />
+ * A single drain at a time, run on the shared executor, reads the bus up to 
+ * the newest event, queues what it read as the overflow policy says and hands 
+ * queued events over as long as there is demand. Every signal the subscriber 
+ * gets, onSubscribe and onError included, comes from the drain, so they never 
+ * overlap. Once it reads MON_ABORTED the subscription comes to an end.
+ * 
+ * @author Fabio Tezedor
+ */
+final class FlowSubscription implements Flow.Subscription, EventBus.Subscriber
+{
+	// events queued at most. the oldest ones are dropped beyond it
+	private static final int CAPACITY = EventBus.SIZE;
+
+	private final ConnectivityMonitor monitor;
+	private final EventBus bus;
+	private final Flow.Subscriber<? super ConnectivityEvent> subscriber;
+	private final Overflow overflow;
+
+	private final AtomicLong demand = new AtomicLong();
+	// wake-ups not seen by the drain yet. the one that brings it up from zero starts the drain
+	private final AtomicInteger signals = new AtomicInteger();
+	private volatile boolean cancelled = false;
+	// a request(n) with n <= 0 (positive while there is none), reported by the drain
+	private volatile long invalid = 1;
+
+	// only touched by the drain, which runs one at a time
+	private long sequence;
+	private boolean subscribed = false;
+	// the monitor was aborted, there is nothing to come after it
+	private boolean aborted = false;
+	private final ArrayDeque<ConnectivityEvent> queue = new ArrayDeque<ConnectivityEvent>();
+	// status the subscriber is going to know once the queue is handed over
+	private ICMStatus told = null;
+	// connectivity changes in a row not queued yet (conflate only)
+	private ConnectivityEvent last = null, detour = null;
+
+	/**
+	 * @param sequence - bus cursor taken holding the monitor's lock
+	 * @param initial - the status when subscribing, the first event the subscriber gets
+	 */
+	FlowSubscription(final ConnectivityMonitor monitor, final EventBus bus, final long sequence, 
+			final Flow.Subscriber<? super ConnectivityEvent> subscriber, final Overflow overflow, 
+			final ConnectivityEvent initial)
+	{
+		this.monitor = monitor;
+		this.bus = bus;
+		this.sequence = sequence;
+		this.subscriber = subscriber;
+		this.overflow = overflow;
+		queue.add(initial);
+		told = initial.status;
+	}
+
+	@Override
+	public void request(final long n)
+	{
+		if (n <= 0) invalid = n;
+		// demand caps at Long.MAX_VALUE, which stands for unbounded
+		else demand.getAndAccumulate(n, (d, x) -> (d + x < 0 ? Long.MAX_VALUE : d + x));
+		signal();
+	}
+
+	@Override
+	public void cancel()
+	{
+		if (cancelled) return;
+		cancelled = true;
+		monitor.unsubscribe(this);
+	}
+
+	@Override
+	public void signal()
+	{
+		if (signals.getAndIncrement() == 0) ProbeRuntime.executor().execute(this::drain);
+	}
+
+	private void drain()
+	{
+		int seen;
+		do
+		{
+			seen = signals.get();
+			if (!cancelled) pass();
+		}
+		while (signals.addAndGet(-seen) > 0);
+	}
+
+	private void pass()
+	{
+		try
+		{
+			if (!subscribed)
+			{
+				subscribed = true;
+				subscriber.onSubscribe(this);
+			}
+			if (invalid <= 0)
+			{
+				cancel();
+				subscriber.onError(new IllegalArgumentException("Invalid demand '" + invalid + "'"));
+				return;
+			}
+			long hi = bus.cursor();
+			for (long next = sequence + 1; next <= hi; next++)
+			{
+				int slot = bus.slot(next);
+				// the publisher lapped us while reading it. go on from the oldest one still there
+				if (bus.claimed() - next >= EventBus.SIZE)
+				{
+					next = bus.claimed() - EventBus.SIZE;
+					continue;
+				}
+				ICMEvent event = EventBus.event(slot);
+				offer(event, EventBus.status(slot));
+				if (event == ICMEvent.MON_ABORTED)
+				{
+					aborted = true;
+					break;
+				}
+			}
+			sequence = hi;
+			// hand over as much as was asked for
+			while (!cancelled && demand.get() > 0)
+			{
+				if (queue.isEmpty()) flush();
+				ConnectivityEvent e = queue.poll();
+				if (e == null) break;
+				if (demand.get() != Long.MAX_VALUE) demand.decrementAndGet();
+				long t0 = System.nanoTime();
+				subscriber.onNext(e);
+				monitor.listenerTimes.record(System.nanoTime() - t0);
+			}
+			// the monitor is over for good. whatever was not asked for by now is dropped
+			if (aborted && !cancelled)
+			{
+				cancel();
+				subscriber.onError(new IllegalStateException("The monitor '" + monitor.getName() 
+						+ "' was aborted: its urls list got empty"));
+			}
+		}
+		catch (Throwable t)
+		{
+			// a subscriber must not throw. if it does, it is not signalled anymore
+			cancel();
+			t.printStackTrace();
+		}
+	}
+
+	private void offer(final ICMEvent event, final ICMStatus status)
+	{
+		switch (overflow)
+		{
+			case DROP_LATEST:
+				if (demand.get() > queue.size()) queue.add(new ConnectivityEvent(monitor.getName(), event, status));
+				break;
+			case DROP_OLDEST:
+				queue(new ConnectivityEvent(monitor.getName(), event, status));
+				break;
+			default:
+				if (FlapDamper.damps(event))
+				{
+					// the row goes on
+					ConnectivityEvent e = new ConnectivityEvent(monitor.getName(), event, status);
+					if (status != told) detour = e;
+					last = e;
+				}
+				else
+				{
+					flush();
+					queue(new ConnectivityEvent(monitor.getName(), event, status));
+				}
+		}
+	}
+
+	// queues the row of connectivity changes read so far
+	private void flush()
+	{
+		if (last == null) return;
+		// the row ended where it started but the subscriber must know it went somewhere else
+		if (last.status == told && detour != null) queue(detour);
+		queue(last);
+		last = detour = null;
+	}
+
+	private void queue(final ConnectivityEvent e)
+	{
+		if (queue.size() >= CAPACITY) queue.poll();
+		queue.add(e);
+		told = e.status;
+	}
+}
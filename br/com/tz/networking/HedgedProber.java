@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes a url node and, if it does not answer within the hedge delay (or fails
+ * before that), fires probes at other nodes of the list in parallel. The first
+ * success wins and the remaining probes are cancelled. When all of them fail the
+ * outage is confirmed by concurrent failures instead of sequential ones.
+ *
+ * @author Fabio Tezedor
+ */
+final class HedgedProber
+{
+	private final ProbeEngine engine;
+	private final short delay;
+	private final byte fanout;
+	// when the verdict comes from a quorum, every outcome goes into it (it might be null)
+	private final QuorumWindow quorum;
+
+	// number of probes that failed during the last call to probe()
+	private int failures = 0;
+
+	HedgedProber(final ProbeEngine engine, final short delay, final byte fanout, final QuorumWindow quorum)
+	{
+		this.engine = engine;
+		this.delay = delay;
+		this.fanout = fanout;
+		this.quorum = quorum;
+	}
+
+	/**
+	 * @return how many probes failed during the last call to probe()
+	 */
+	int failures()
+	{
+		return failures;
+	}
+
+	/**
+	 * probes the primary node hedging it with up to 'fanout' other nodes
+	 *
+	 * @param primary - node already acquired by the caller
+	 * @param list - list the hedging nodes are taken from
+	 * @return the node that answered first
+	 * @throws IOException the primary node's failure (or the first one) when no probe succeeded
+	 */
+	UrlNode probe(final UrlNode primary, final UrlCircularList list) throws IOException, InterruptedException
+	{
+		// probes are queued up here as they complete
+		BlockingQueue<CompletableFuture<UrlNode>> completed = new LinkedBlockingQueue<CompletableFuture<UrlNode>>();
+		List<CompletableFuture<UrlNode>> inFlight = new ArrayList<CompletableFuture<UrlNode>>(fanout + 1);
+
+		failures = 0;
+
+		CompletableFuture<UrlNode> primaryFuture = submit(primary, completed, inFlight);
+
+		IOException primaryFailure = null, firstFailure = null;
+		int pending = 1;
+		boolean hedged = false;
+
+		try
+		{
+			CompletableFuture<UrlNode> done = completed.poll(delay, TimeUnit.MILLISECONDS);
+			while (true)
+			{
+				if (done != null)
+				{
+					pending--;
+					try
+					{
+						return done.get();
+					}
+					catch (ExecutionException e)
+					{
+						failures++;
+						IOException ioe = (e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause()));
+						if (firstFailure == null) firstFailure = ioe;
+						if (done == primaryFuture) primaryFailure = ioe;
+					}
+				}
+				// either the hedge delay has elapsed or the primary failed before that
+				if (!hedged)
+				{
+					hedged = true;
+					for (int i = 0; i < fanout; i++)
+					{
+						UrlNode nd = list.acquireNext();
+						// every other node is busy, go with what we have got
+						if (nd == null) break;
+						submit(nd, completed, inFlight);
+						pending++;
+					}
+				}
+				if (pending <= 0) throw (primaryFailure != null ? primaryFailure : firstFailure);
+				done = completed.take();
+			}
+		}
+		finally
+		{
+			// the losers are not needed anymore. engines release their nodes once 
+			// they are really done with them so it is safe to cancel right away
+			for (CompletableFuture<UrlNode> f : inFlight) f.cancel(false);
+		}
+	}
+
+	private CompletableFuture<UrlNode> submit(final UrlNode node, final BlockingQueue<CompletableFuture<UrlNode>> completed, 
+			final List<CompletableFuture<UrlNode>> inFlight)
+	{
+		final long start = System.nanoTime();
+		final CompletableFuture<UrlNode> future = engine.probe(node);
+		future.whenComplete((n, t) -> {
+			// the losers cancelled don't tell anything about their nodes
+			if (t == null) node.succeeded(System.nanoTime() - start);
+			else if (!future.isCancelled())
+			{
+				node.failed();
+				// each node's own time outs count against its circuit breaker, not just the primary's
+				Throwable cause = (t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+				if (ProbeResult.classify(cause) == ProbeResult.Failure.TIMEOUT && node.timedOut() 
+						&& InternetConnectivityMonitor.verbose)
+					System.out.println("'" + node.url + "' has timed out too many times and will be left aside for " 
+							+ (node.coolDown() / 1000) + " secs");
+			}
+			if (quorum != null && !future.isCancelled()) quorum.record(node.id, t == null, System.currentTimeMillis());
+			completed.offer(future);
+		});
+		inFlight.add(future);
+		return future;
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probes url nodes through a single, shared {@code java.net.http.HttpClient}.<br />
+ * Requests are sent asynchronously so no thread gets blocked per probe. The client
+ * keeps connections alive and pooled, and multiplexes requests over HTTP/2 whenever 
+ * the website supports it, so there is no repeated TCP/TLS setup while the link is 
+ * healthy. In HEAD mode no body is ever sent back, otherwise it is discarded 
+ * once its bytes are counted.
+ * 
+ * @author Fabio Tezedor
+ */
+final class HttpClientProbeEngine implements ProbeEngine
+{
+	private static final HttpClientProbeEngine INSTANCE = new HttpClientProbeEngine();
+
+	private final HttpClient client;
+
+	private HttpClientProbeEngine()
+	{
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(UrlNode.CONNECT_TIMEOUT))
+				// a redirect is an answer as good as any other
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.build();
+	}
+
+	// discards the body, giving back how many bytes it had
+	private static final HttpResponse.BodyHandler<Long> COUNTING = info -> {
+		final AtomicLong n = new AtomicLong();
+		return HttpResponse.BodySubscribers.fromSubscriber(new Flow.Subscriber<java.util.List<ByteBuffer>>()
+		{
+			@Override
+			public void onSubscribe(final Flow.Subscription s)
+			{
+				s.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(final java.util.List<ByteBuffer> buffers)
+			{
+				for (ByteBuffer b : buffers) n.addAndGet(b.remaining());
+			}
+
+			@Override
+			public void onError(final Throwable t)
+			{
+			}
+
+			@Override
+			public void onComplete()
+			{
+			}
+		}, s -> n.get());
+	};
+
+	static HttpClientProbeEngine getInstance()
+	{
+		return INSTANCE;
+	}
+
+	@Override
+	public CompletableFuture<UrlNode> probe(final UrlNode node)
+	{
+		// the client can be bound to a local address only from java 19 on
+		if ( node.localAddress != null ) return SocketProbeEngine.getInstance().probe(node);
+
+		final CompletableFuture<UrlNode> future = new CompletableFuture<UrlNode>();
+		final CompletableFuture<HttpResponse<Long>> response;
+		final String method = (node.method.equalsIgnoreCase("HEAD") ? "HEAD" : "GET");
+		final long dns, start;
+		try
+		{
+			// the client resolves names on its own. resolving it beforehand tells a slow resolver 
+			// apart from a slow website and, most of the time, the client will find it cached
+			long t0 = System.nanoTime();
+			DnsCache.resolve(node.host);
+			start = System.nanoTime();
+			dns = start - t0;
+
+			HttpRequest request = HttpRequest.newBuilder(URI.create(node.url))
+					.method(method, HttpRequest.BodyPublishers.noBody())
+					.timeout(Duration.ofMillis(UrlNode.CONNECT_TIMEOUT * 4))
+					.header("User-Agent", "Mozilla/4.0")
+					.build();
+			response = client.sendAsync(request, COUNTING);
+		}
+		catch (IllegalArgumentException e)
+		{
+			node.account(0, 0);
+			node.release();
+			future.completeExceptionally(new java.net.MalformedURLException(e.getMessage()));
+			return future;
+		}
+		catch (IOException e)
+		{
+			node.account(0, 0);
+			node.release();
+			future.completeExceptionally(e);
+			return future;
+		}
+
+		// whatever the status code, getting a response means the website could be reached
+		response.whenComplete((r, t) -> {
+			if ( t == null )
+			{
+				// connections are pooled so tcp and tls are paid once in a while. when they are, 
+				// they get into the time to the first byte since the client doesn't tell them apart
+				node.stages(dns, -1, -1, System.nanoTime() - start);
+				// the status line doesn't come among the headers. 17 bytes is the size of 'HTTP/1.1 200 OK\r\n'. 
+				// the body is counted as it was received (dechunked), whatever its length header said
+				node.account(node.requestSize(method), 17 + UrlNode.headersSize(r.headers().map()) + r.body());
+				// the node is released once the future's callbacks (the hedger's breaker update) are done
+				future.complete(node);
+				node.release();
+			}
+			else
+			{
+				node.account(0, 0);
+				if ( t instanceof CompletionException && t.getCause() != null ) t = t.getCause();
+				future.completeExceptionally(t instanceof IOException ? t : new IOException(t));
+				node.release();
+			}
+		});
+		// cancelling the probe aborts the exchange
+		future.whenComplete((n, t) -> {
+			if ( future.isCancelled() ) response.cancel(true);
+		});
+		return future;
+	}
+}
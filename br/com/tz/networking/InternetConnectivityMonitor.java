@@ -18,7 +18,6 @@ package br.com.tz.networking;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.TimerTask;
 import java.util.stream.Collectors;
@@ -77,6 +76,101 @@ import java.util.stream.Collectors;
  *       so no matter how many listeners we have the number of threads will remain stead. that 
  *       is OK since well-implemented onIcmStatusChange methods should be executed in  just  a 
  *       few milliseconds
+ *    Oct, 2026
+ *       * introduced hedged probing. when the probed url does not answer within the hedge 
+ *       delay (or fails before that), the same cycle fires probes at other urls in parallel. 
+ *       the first success wins and, if all of them fail, the outage is confirmed at once 
+ *       instead of after maxNumberOfFailuresLevel1 sequential cycles.
+ *       * introduced the probe engine. besides the original one built on HttpURLConnection, 
+ *       the urls can be checked by a selector based engine that opens non-blocking tcp con-
+ *       nections to their host and port. a single I/O thread keeps track of all of them so 
+ *       large lists of targets can be watched without a thread per probe.
+ *       * introduced the httpclient probe engine. a single java.net.http.HttpClient shared 
+ *       by all urls sends asynchronous HEAD requests, keeping connections alive and multi-
+ *       plexing them over HTTP/2, so a healthy link costs no repeated TCP/TLS setup.
+ *       * the HttpURLConnection is created for every probe again. once disconnected it kept 
+ *       handing back the very first response so, since Aug 2019, urls were actually reached 
+ *       only once.
+ *       * introduced the probe method. HEAD requests (ideally against 204-style urls) never 
+ *       get a body back. bytes sent and received are accounted per url and can be read 
+ *       through getTargetStatistics(). bodies are counted as read, request and headers are estimated.
+ *       * introduced the dns cache. urls' hosts are resolved through it and its entries are 
+ *       refreshed in the background so probes don't wait for the resolver. probes record how 
+ *       long each stage (dns, tcp, tls, first byte) took. the new socket engine, which speaks 
+ *       http over a plain socket, is the one able to time all of them apart.
+ *       * introduced the adaptive schedule mode as an alternative to the fixed sleep levels. 
+ *       the time between probes is stretched while the link behaves as usual and drops to 
+ *       the minimum right after an anomaly, based on ewma of the success rate and the rtt.
+ *       * introduced the selection policy. instead of strict round-robin, the next url can be 
+ *       picked by latency (weighted at random), by the faster of two random ones or by the 
+ *       oldest failure, so probes go mostly to fast and healthy urls.
+ *       * urls that time out too many times are not removed from the list anymore. each one 
+ *       has a circuit breaker instead: it opens for a cool-down period, then a trial probe 
+ *       is allowed (half-open) and, if it fails, the cool-down is doubled. this way the list 
+ *       recovers on its own after long outages.
+ *       * introduced the thread mode. when set to virtual (and running on Java 21 or later), 
+ *       each probe and each parallel notification runs on a virtual thread of its own, so 
+ *       many concurrent probes and slow listeners don't grow the number of platform threads. 
+ *       notifications of the same listener are still delivered in order.
+ *       * probes are fired at a fixed rate on the monotonic clock instead of sleeping after 
+ *       each one. the sleep intervals are now the periods between the start of consecutive 
+ *       probes, so time outs don't stretch them anymore. ticks overrun by slow probes are 
+ *       skipped rather than fired in a burst to catch up.
+ *       * introduced the quorum. when on, the status turns ONLINE or OFFLINE only when enough 
+ *       of the last distinct urls probed within a time window agree on it, so a single dead 
+ *       url or a single lucky success does not flip it anymore.
+ *       * ICM is not bound to a single monitor anymore. independent monitors, each one with 
+ *       its own configuration, urls, state and listeners, can be created through Connectivity-
+ *       Monitor.builder(). none of them has a thread of its own: a timer and an executor shared 
+ *       by all of them fire and run their probes. the static methods are backed by a default 
+ *       monitor whose configuration is the static one, so the ICM-Thread is gone.
+ *       * probes can be bound to a local address or network interface. on multi-homed hosts 
+ *       each uplink can be watched by a monitor of its own, whose status tells whether that 
+ *       very path is up, regardless of where the default route points to.
+ *       * introduced the link watcher. the state of the network links is polled (from /sys/ 
+ *       class/net on linux) so a cable pulled out or a wi-fi dropped turns the connectivity 
+ *       offline in milliseconds instead of after a few failed probes. once the link comes 
+ *       back up a burst of probes is fired to find out whether the connectivity is back. 
+ *       it is off by default, setting a link poll interval turns it on.
+ *       * besides http(s), urls can be tcp://host:port (plain connection), dns://server/name 
+ *       (dns query) or icmp://host (InetAddress.isReachable). each scheme is handled by a 
+ *       Probe and more of them can be plugged in through the ServiceLoader, so the cheapest 
+ *       check that works on each network segment can be used.
+ *       * probe latencies are recorded in log-linear histograms, one per url and a global one, 
+ *       so p50, p90, p99 and max can be read through getTargetStatistics() and getLatency-
+ *       Snapshot() to set time outs from data and spot a degrading uplink early on.
+ *       * running monitors are registered as MBeans (br.com.tz.networking:type=Connectivity-
+ *       Monitor,name=...). state, status, probes per second, failures by type, per url fail 
+ *       counters and latencies, listeners and notifications backlog can be read, and the 
+ *       monitor can be paused, resumed or forced to probe right away through JMX.
+ *       * the same figures can be served in the prometheus text format on the loopback, at 
+ *       http://127.0.0.1:port/metrics, once a metrics port is configured.
+ *       * introduced the DEGRADED status and the CON_DEGRADED event. once turned on, a link 
+ *       still online whose loss rate or latency percentile over the latest probes reaches its 
+ *       threshold is reported as degraded, so listeners can shed load before a full outage. 
+ *       separate enter and exit thresholds keep it from flapping.
+ *       * stop() no longer polls the monitor's state every 100 ms. the probe in flight is 
+ *       interrupted (and its future cancelled) by stop() and pause(), and stop() is woken 
+ *       up the moment the cycle is over, so both of them take a few milliseconds.
+ *       * introduced flap damping. a status can be required to last a while before the next 
+ *       change is reported and, as in BGP route damping, every change adds up a decaying 
+ *       penalty. past a threshold a single CON_FLAPPING is reported and the changes are held 
+ *       back, merged into the newest one, until the link settles down.
+ *       * listeners live in a copy-on-write registry. registering publishes a new array 
+ *       and notifications walk the latest one with a plain loop, so they neither race with 
+ *       listeners coming and going nor take any lock. listeners are told apart by identity.
+ *       * parallel notifications go through a mailbox per listener, drained in order on the 
+ *       shared executor. the pooled, threaded and virtual notifiers are gone and so is the 
+ *       thread per listener. notifications are no longer dropped when a listener is slow, 
+ *       the connectivity changes piled up are conflated instead so it catches up with the 
+ *       latest status without missing that it changed in the meantime.
+ *       * parallel listeners read the notifications from an event bus, a ring buffer the 
+ *       monitor publishes each event into once, every listener keeping its own sequence. 
+ *       the cost of a notification no longer grows with the number of listeners, so the 
+ *       max number of listeners is no longer a byte and 0 means no limit at all.
+ *       * events can be consumed as a java.util.concurrent.Flow.Publisher as well. each 
+ *       subscription reads the event bus and hands events over as they are requested. the 
+ *       ones not asked for yet are conflated or dropped (oldest or latest), as chosen.
  */
 
 /**
@@ -94,16 +188,16 @@ import java.util.stream.Collectors;
  * @version 1.4.0
  */
 //public final class InternetConnectivityMonitor implements Runnable, InternetConectivityChangeListener
-public class InternetConnectivityMonitor implements Runnable, InternetConectivityChangeListener
+public class InternetConnectivityMonitor implements InternetConectivityChangeListener
 {
 	public static enum ICMEvent
 	{
-		NOTHING, MON_STARTED, MON_PAUSED, MON_RESUMED, MON_STOPPED, MON_ABORTED, CON_CHANGED, CON_FAILURE
+		NOTHING, MON_STARTED, MON_PAUSED, MON_RESUMED, MON_STOPPED, MON_ABORTED, CON_CHANGED, CON_FAILURE, CON_DEGRADED, CON_FLAPPING
 	}
 
 	public static enum ICMStatus
 	{
-		ONLINE, OFFLINE, UNKNOWN
+		ONLINE, OFFLINE, UNKNOWN, DEGRADED
 	}
 
 	public static enum State
@@ -111,21 +205,21 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 		RUNNING, PAUSED, STOPPED
 	}
 	
-	private static boolean simulate = false;
-
-	private static boolean verbose = false;
-	private static State state = State.STOPPED;
-	private static final Object pauseLock = new Object();
-	
-	private volatile boolean running = false;
-	private volatile boolean paused = false;
-	private volatile boolean online = false;
-	private boolean innerUrlsInUse = true;
+	// read by the monitors as well
+	static volatile boolean simulate = false;
+	static volatile boolean verbose = false;
 
 	private static InternetConnectivityMonitor icmInst = SingletonHelper.INSTANCE;
-	private static Thread icmThread = new Thread(icmInst, "ICM-Thread");
-	// list to hold registered listeners
-	private static java.util.List<ListenerNotifier> listeners = new ArrayList<ListenerNotifier>();
+	// the monitor behind the static methods. its configuration is the static one
+	private static final ConnectivityMonitor monitor = ConnectivityMonitor.builder().name("ICM")
+			.configuration(Configuration.toConfiguration()).build();
+
+	static
+	{
+		// ICM's onIcmStatusChange is well implemented so, it can be notified by the 
+		// monitor's thread with no worries regardless of what the notification mode is set to
+		monitor.addInternalListener(icmInst);
+	}
 
 	// this is a singleton class and that's why the constructor is private
 	protected InternetConnectivityMonitor()
@@ -177,6 +271,21 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 			}
 		}
 
+		// settings that don't go together would keep the monitor from being built at all
+		if (Configuration.source.indexOf("default") <= 0)
+		{
+			try
+			{
+				ConnectivityMonitor.validate(icmCfg);
+			}
+			catch (IllegalArgumentException e)
+			{
+				System.err.println("Config file '" + Configuration.source + "' is not valid: " + e.getMessage() 
+						+ ". The built-in default values will be used instead");
+				Configuration.source = "built-in default values";
+			}
+		}
+
 		// if Configuration.source is different of 'default'
 		// replace default config values by the ones from the config file
 		if (Configuration.source.indexOf("default") <= 0)
@@ -190,9 +299,38 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 			Configuration.failureSleepIntervalLevel3 = icmCfg.getFailureSleepTimeL3();
 			Configuration.waitOnFailure              = icmCfg.getWaitOnFailure();
 			Configuration.notificationMode           = icmCfg.getNotificantionMode();
+			Configuration.threadMode                 = icmCfg.getThreadMode();
+			Configuration.hedgeDelay                 = icmCfg.getHedgeDelay();
+			Configuration.hedgeFanout                = icmCfg.getHedgeFanout();
+			Configuration.probeEngine                = icmCfg.getProbeEngine();
+			Configuration.probeMethod                = icmCfg.getProbeMethod();
+			Configuration.dnsCacheTtl                = icmCfg.getDnsCacheTtl();
+			Configuration.scheduleMode               = icmCfg.getScheduleMode();
+			Configuration.minSleepInterval           = icmCfg.getMinSleepTime();
+			Configuration.maxSleepInterval           = icmCfg.getMaxSleepTime();
+			Configuration.selectionPolicy            = icmCfg.getSelectionPolicy();
+			Configuration.breakerThreshold           = icmCfg.getBreakerThreshold();
+			Configuration.breakerCoolDown            = icmCfg.getBreakerCoolDown();
+			Configuration.breakerMaxCoolDown         = icmCfg.getBreakerMaxCoolDown();
+			Configuration.quorumSize                 = icmCfg.getQuorumSize();
+			Configuration.quorumTargets              = icmCfg.getQuorumTargets();
+			Configuration.quorumWindow               = icmCfg.getQuorumWindow();
+			Configuration.bindAddress                = icmCfg.getBindAddress();
+			Configuration.bindInterface              = icmCfg.getBindInterface();
+			Configuration.linkPollInterval           = icmCfg.getLinkPollInterval();
+			Configuration.metricsPort                = icmCfg.getMetricsPort();
+			Configuration.degradedWindow             = icmCfg.getDegradedWindow();
+			Configuration.degradedLossEnter          = icmCfg.getDegradedLossEnter();
+			Configuration.degradedLossExit           = icmCfg.getDegradedLossExit();
+			Configuration.degradedPercentile         = icmCfg.getDegradedPercentile();
+			Configuration.degradedLatencyEnter       = icmCfg.getDegradedLatencyEnter();
+			Configuration.degradedLatencyExit        = icmCfg.getDegradedLatencyExit();
+			Configuration.dampingDwell               = icmCfg.getDampingDwell();
+			Configuration.dampingPenalty             = icmCfg.getDampingPenalty();
+			Configuration.dampingSuppress            = icmCfg.getDampingSuppress();
+			Configuration.dampingReuse               = icmCfg.getDampingReuse();
+			Configuration.dampingHalfLife            = icmCfg.getDampingHalfLife();
 			Configuration.urls = icmCfg.getUrls();
-			// since urls were loaded from config file, set innerUrlsInUse = false
-			innerUrlsInUse = false;
 		}
 
 		if (verbose)
@@ -205,7 +343,33 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 					+ "Failure sleep interval (level 3): "     + Configuration.failureSleepIntervalLevel3 + " ms\n"
 					+ "Wait on failure: "                      + (Configuration.waitOnFailure ? "ON" : "OFF") + "\n"
 					+ "Success sleep interval: "               + Configuration.successSleepInterval + " ms\n"
-					+ "Notification mode: "                    + Configuration.notificationMode + "\n");
+					+ "Notification mode: "                    + Configuration.notificationMode + "\n"
+					+ "Thread mode: "                          + Configuration.threadMode + "\n"
+					+ "Hedge delay: "                          + Configuration.hedgeDelay + " ms\n"
+					+ "Hedge fanout: "                         + Configuration.hedgeFanout + "\n"
+					+ "Probe engine: "                         + Configuration.probeEngine + "\n"
+					+ "Probe method: "                         + Configuration.probeMethod + "\n"
+					+ "DNS cache ttl: "                        + Configuration.dnsCacheTtl + " s\n"
+					+ "Schedule mode: "                        + Configuration.scheduleMode + "\n"
+					+ "Minimum sleep interval (adaptive): "    + Configuration.minSleepInterval + " ms\n"
+					+ "Maximum sleep interval (adaptive): "    + Configuration.maxSleepInterval + " ms\n"
+					+ "Selection policy: "                     + Configuration.selectionPolicy + "\n"
+					+ "Breaker threshold: "                    + Configuration.breakerThreshold + "\n"
+					+ "Breaker cool-down: "                    + Configuration.breakerCoolDown + " up to " + Configuration.breakerMaxCoolDown + " s\n"
+					+ "Quorum: "                               + Configuration.quorumSize + " out of " + Configuration.quorumTargets 
+					+ " urls within " + Configuration.quorumWindow + " s\n"
+					+ "Bound to: "                             + (Configuration.bindAddress != null ? Configuration.bindAddress : 
+						(Configuration.bindInterface != null ? Configuration.bindInterface : "default route")) + "\n"
+					+ "Link poll interval: "                   + Configuration.linkPollInterval + " ms\n"
+					+ "Metrics port: "                         + (Configuration.metricsPort > 0 ? Configuration.metricsPort : "off") + "\n"
+					+ "Degraded: "                             + (Configuration.degradedWindow <= 0 ? "off" : 
+						"loss " + Configuration.degradedLossEnter + "/" + Configuration.degradedLossExit + " %, p" 
+						+ Configuration.degradedPercentile + " " + Configuration.degradedLatencyEnter + "/" 
+						+ Configuration.degradedLatencyExit + " ms over " + Configuration.degradedWindow + " probes") + "\n"
+					+ "Damping: "                              + "dwell " + Configuration.dampingDwell + " ms, penalty " 
+						+ (Configuration.dampingPenalty <= 0 ? "off" : Configuration.dampingPenalty + " (suppress " 
+						+ Configuration.dampingSuppress + ", reuse " + Configuration.dampingReuse + ", half-life " 
+						+ Configuration.dampingHalfLife + " s)") + "\n");
 		}
 	}
 
@@ -221,7 +385,7 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 
 	public final static State getState()
 	{
-		return state;
+		return monitor.getState();
 	}
 
 	public final static void main(String[] args)
@@ -258,6 +422,37 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 		}
 	}
 
+	/**
+	 * gives back what is known about each url being probed: failures, number of probes
+	 * and how many bytes they cost
+	 * 
+	 * @return one {@code TargetStatistics} per url, empty if the monitor has never run
+	 */
+	public final static java.util.List<TargetStatistics> getTargetStatistics()
+	{
+		return monitor.getTargetStatistics();
+	}
+
+	/**
+	 * @return percentiles of the latencies of all the successful probes made by all the 
+	 *         monitors (the default one and those created through ConnectivityMonitor.builder())
+	 */
+	public final static LatencySnapshot getLatencySnapshot()
+	{
+		return LatencyHistogram.GLOBAL.snapshot();
+	}
+
+	/**
+	 * @param overflow - what becomes of the events a subscriber did not ask for yet
+	 * @return a publisher of the default monitor's events for reactive subscribers. 
+	 *         subscribing starts the monitor just like registering a listener does
+	 */
+	public final static ConnectivityPublisher publisher(final ConnectivityPublisher.Overflow overflow)
+	{
+		reconfigure();
+		return monitor.publisher(overflow);
+	}
+
 	/**
 	 * register listeners to be notified about connectivity status changes
 	 * 
@@ -265,45 +460,10 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 	 * @param listener a class that implements the interface
 	 *                 InternetConectivityChangeListener
 	 */
-	@SuppressWarnings("unlikely-arg-type")
 	public final static void addConnectivityChangeListener(final InternetConectivityChangeListener listener)
 	{
-		if ( listeners.size() >= Configuration.maxListenersNumber ) 
-			throw new RuntimeException("There is no room for more listeners");
-
-		if (listeners.stream().filter( e -> e.equals(listener) ).findFirst().isPresent())
-		{
-			if (verbose)
-				System.out.println(
-						"You (" + listener.getClass().getName() + "@" + listener.getClass().hashCode() + ") again?");
-			return;		
-		}
-
-		// start monitoring if the listener being added is not the monitor itself
-		if ( !listener.equals(icmInst) ) start();
-
-		// ICM's onIcmStatusChange is well implemented so, it can be notified by the ICM's 
-		// thread with no worries regardless of what the notification mode is set to
-		if ( ! Configuration.notificationMode.equalsIgnoreCase("parallel") || listener.equals(icmInst) )
-		{
-			listeners.add( new RegularListenerNotifier(listener) );
-		}
-		else
-		{
-			if ( Configuration.maxListenersNumber > 10 )
-				listeners.add( new PooledListenerNotifier(listener) );
-			else
-				listeners.add( new ThreadedListenerNotifier(listener) );
-		}
-
-		if (verbose)
-			System.out.format( "Listeners: %s out of %d. %s still available.\n", 
-					listeners.size() + " slot" + (listeners.size() > 1 ? "s" : ""), 
-					Configuration.maxListenersNumber, 
-					Configuration.maxListenersNumber-listeners.size() + " slot" +
-					(Configuration.maxListenersNumber - listeners.size() > 1 ? "s" : "") );
-
-		listeners.get(listeners.size()-1).notify(ICMEvent.CON_CHANGED, (icmInst.online ? ICMStatus.ONLINE : ICMStatus.OFFLINE));
+		reconfigure();
+		monitor.addConnectivityChangeListener(listener);
 	}
 
 	/**
@@ -312,333 +472,64 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 	 * @param listener - a class that implements the interface
 	 *                 InternetConectivityChangeListener
 	 */
-	@SuppressWarnings("unlikely-arg-type")
 	public final static void removeConnectivityChangeListener(InternetConectivityChangeListener listener)
 	{
-		for (int i = 0; i < listeners.size(); i++)
-		{
-			if (listeners.get(i).equals(listener))
-			{
-				listeners.remove(i); //.die();
-				break;
-			}
-		}
-
-		if (verbose)
-			System.out.format( "Listeners: %s out of %d. %s still available.\n", 
-					listeners.size() + " slot" + (listeners.size() > 1 ? "s" : ""), 
-					Configuration.maxListenersNumber, 
-					Configuration.maxListenersNumber-listeners.size() + " slot" +
-					(Configuration.maxListenersNumber - listeners.size() > 1 ? "s" : "") );
-		
-		// if listeners list has one or none listeners the monitor can be paused
-		if ( listeners.size() <= 1 ) pause();
+		monitor.removeConnectivityChangeListener(listener);
 	}
 
 	/**
-	 * start the monitor
+	 * the static configuration might have been changed since the last run. if its settings 
+	 * don't go together, an IllegalArgumentException is thrown and nothing is changed
 	 */
-	protected final static void start()
+	private static void reconfigure()
 	{
-		if (verbose)
-		{
-			StackTraceElement caller = Thread.currentThread().getStackTrace()[2];
-			System.out.println(caller.getClassName() + "." + caller.getMethodName() + " called ICM's start method ");
-		}
-
-		if (icmInst.paused) resume();
-		if (icmInst.running) return;
-
-		// Lazy Initialization
-		// instantiate InternetConnectivityMonitor right before it's gonna be used
-		// if ( icmInst == null ) icmInst = SingletonHelper.INSTANCE;
-		// if ( icmThread == null ) icmThread = new Thread( icmInst );
-
-		if (icmThread.getState() == Thread.State.TERMINATED)
-		{
-			icmThread = new Thread(icmInst, "ICM-Thread");
-		}
-
-		// running a thread as daemon allows JVM to kill it when going down
-		// thus there's no need for any explicit 'stop' call to be made
-		if ( ! icmThread.isDaemon() ) icmThread.setDaemon(true);
-		
-		icmInst.running = true;
-		icmThread.start();
+		if (monitor.getState() == State.STOPPED) monitor.configure(Configuration.toConfiguration());
 	}
 
-	/**
-	 * stops monitor
-	 */
-	protected final static boolean stop()
+	private static void trace(final String method)
 	{
 		if (verbose)
 		{
-			StackTraceElement caller = Thread.currentThread().getStackTrace()[2];
-			System.out.println(caller.getClassName() + "." + caller.getMethodName() + " called ICM's stop method ");
-		}
-
-		// since thread might be paused let's invoke the resume() method, 
-		// just in case it is, before trying to stop it
-		resume();
-		// signaling it to stop
-		if (icmInst.running) 
-		{
-			icmInst.running = false;
-			//icmThread.interrupt();
-		}
-		int wctr = 120;
-		// wait for the thread to leave method run(). it wouldn't take long.
-		// odd bug is preventing icmThread to terminate on its own so the counter
-		while (icmThread.isAlive() && wctr-- > 0)
-		{
-			// let's wait for a little while before checking icmThread once more
-			try
-			{
-				Thread.sleep(100);
-			} 
-			catch (InterruptedException e)
-			{
-			}
+			StackTraceElement caller = Thread.currentThread().getStackTrace()[3];
+			System.out.println(caller.getClassName() + "." + caller.getMethodName() + " called ICM's " + method + " method ");
 		}
-		return icmThread.getState() == Thread.State.TERMINATED;
 	}
 
 	/**
-	 * pause monitor
+	 * start the monitor
 	 */
-	protected final static void pause()
+	protected final static void start()
 	{
-		if (verbose)
-		{
-			StackTraceElement caller = Thread.currentThread().getStackTrace()[2];
-			System.out.println(caller.getClassName() + "." + caller.getMethodName() + " called ICM's pause method ");
-		}
-
-		if (!icmInst.running) return;
-		icmInst.paused = true;
+		trace("start");
+		reconfigure();
+		monitor.start();
 	}
 
 	/**
-	 * resume monitoring previously paused
+	 * stops monitor
 	 */
-	protected final static void resume()
+	protected final static boolean stop()
 	{
-		if (verbose)
-		{
-			StackTraceElement caller = Thread.currentThread().getStackTrace()[2];
-			System.out.println(caller.getClassName() + "." + caller.getMethodName() + " called ICM's resume method ");
-		}
-
-		// if it's not running there's no point in trying to resume it
-		if (!icmInst.running) return;
-		// if it's not paused just get the hell out of here
-		if (!icmInst.paused) return;
-		// if reached here do whatever needs to be done to get it resumed
-		synchronized (pauseLock)
-		{
-			icmInst.paused = false;
-			pauseLock.notifyAll(); // Unblocks threads
-		}
+		trace("stop");
+		return monitor.stop();
 	}
 
-	// holds the last event occurred
-	// it's intended to be used by the notifyListeners method
-	private int lastEvent; // = State.STOPPED.hashCode() * -1;
-
 	/**
-	 * notify all registered listeners about the connectivity status change
+	 * pause monitor
 	 */
-	private final void notifyListeners(final ICMEvent evt, final ICMStatus stt)
+	protected final static void pause()
 	{
-		int event = evt.hashCode();
-//		if ( simulate ) stt = ICMStatus.OFFLINE;
-		/* a negative value means connection is offline */
-		if ( stt == ICMStatus.OFFLINE || simulate ) event *= -1;
-		// if event and status are the same as the previous one, just get the hell out right away
-		if (lastEvent == event && evt != ICMEvent.CON_FAILURE) return;
-		// otherwise save them
-		lastEvent = event;
-		online = (event > 0);
-		// traverse the listeners list and notify each and every one
-		listeners.stream().filter(l -> l != null).forEach( l -> l.notify(evt, (simulate ? ICMStatus.OFFLINE : stt)) );
-
+		trace("pause");
+		monitor.pause();
 	}
-	
 
 	/**
-	 * The main method that does the actual job
+	 * resume monitoring previously paused
 	 */
-	public final void run()
+	protected final static void resume()
 	{
-		// set innerUrlsInUse = false no matter if it's the first run or not
-		innerUrlsInUse = false;
-
-		addConnectivityChangeListener(icmInst);
-
-		byte fmn_l1 = Configuration.maxNumberOfFailuresLevel1, fmn_l2 = Configuration.maxNumberOfFailuresLevel2;
-
-		short ssi = Configuration.successSleepInterval, 
-				fsi_l1 = Configuration.failureSleepIntervalLevel1,
-				fsi_l2 = Configuration.failureSleepIntervalLevel2, 
-				fsi_l3 = Configuration.failureSleepIntervalLevel3;
-
-		// urls' circular list
-		UrlCircularList clUrls = new UrlCircularList(UrlNode.toList(Configuration.urls));
-
-		UrlNode urlNode = null;
-
-		int failCounter = 0; // http connection failure counter
-
-		// notify listeners the monitor has been started
-		notifyListeners(ICMEvent.MON_STARTED, (icmInst.online ? ICMStatus.ONLINE : ICMStatus.OFFLINE));
-
-		while (running)
-		{
-			state = State.RUNNING;
-
-			if (clUrls.size() <= 0)
-			{
-				(new java.lang.IndexOutOfBoundsException("URLs list is empty")).printStackTrace();
-				// if urls list is empty let's use the inner defined ones
-				if (!innerUrlsInUse)
-				{
-					innerUrlsInUse = true;
-					clUrls = new UrlCircularList(UrlNode.toList(Configuration.builtinUrls));
-					System.err.print("The urls list got empty then the inner defined urls will be loaded");
-				}
-				// if urls list is empty there's nothing to do but stop the 
-				// monitor and notify everyone the connectivity is broken
-				else
-				{
-					running = false;
-					// if ( online ) notifyListeners( false );
-					notifyListeners(ICMEvent.MON_ABORTED, ICMStatus.OFFLINE);
-					System.err.print("The urls list got empty thus the monitor cannot do its job and will be ended");
-				}
-			}
-
-			if (paused)
-			{
-				synchronized (pauseLock)
-				{
-					if (!running) break;
-
-					try
-					{
-						state = State.PAUSED;
-
-						notifyListeners(ICMEvent.MON_PAUSED, (icmInst.online ? ICMStatus.ONLINE : ICMStatus.OFFLINE));
-						pauseLock.wait();
-						notifyListeners(ICMEvent.MON_RESUMED, (icmInst.online ? ICMStatus.ONLINE : ICMStatus.OFFLINE));
-					} 
-					catch (InterruptedException ex)
-					{
-						break;
-					}
-				}
-				// 'running' status might have changed since we paused
-				if (!running) break;
-			}
-
-			try
-			{
-				urlNode = clUrls.getNext();
-				if (verbose) System.out.println("Probing " + urlNode.url);
-
-				// every url node holds an http connection object specially built for it
-				urlNode.conn.connect();
-				urlNode.conn.getInputStream().close();
-				urlNode.conn.disconnect();
-
-				// reset the global and the url failure counter since the connection was successfully established
-				failCounter = 0;
-				urlNode.failCounter = 0;
-
-				// notify the Internet connection is up
-				notifyListeners(ICMEvent.CON_CHANGED, ICMStatus.ONLINE);
-
-				// check once more if stop was called
-				if (!running) break;
-
-				// let's wait awhile before performing another check
-				if (ssi > 0) Thread.sleep(ssi);
-			} 
-			catch (java.net.MalformedURLException e)
-			{
-				System.err.println(urlNode.url + ": " + (new RuntimeException(e)).getMessage());
-				// if url is malformed it must be popped out from the list
-				clUrls.remove(urlNode);
-			} 
-			catch (java.io.IOException e)
-			{
-				// if connectivity goes down it can take awhile to get back so there's no point
-				// in get hundreds or thousands exceptions logged
-				if (!(e.getMessage().contains("Network is unreachable") || e instanceof java.net.UnknownHostException))
-				{
-					System.err.println(">>> " + urlNode.url + " <<<");
-					e.printStackTrace();
-				}
-				// if exception thrown is related to time out, increase the url failure counter
-				// but if the failure counter reached the max number of 10, remove the url from
-				// the list and perform another check right away using the next url on the list
-				if (e.getMessage().contains("timed out"))
-				{
-					System.err.println(urlNode.url + " did not respond in a timely manner");
-					urlNode.failCounter++;
-					if (urlNode.failCounter >= 10)
-					{
-						if (verbose) 
-							System.out.println("'" + urlNode.url + "' has timed out too many times and will be removed");
-						clUrls.remove(urlNode);
-					}
-				} 
-				else
-				{
-					//System.out.println("-x-x-x-( 01 )-x-x-x-");
-					//e.printStackTrace();
-					// if status is online, report connection failure
-					// once the connection failed the status must be reported as unknown
-					if (icmInst.online) notifyListeners(ICMEvent.CON_FAILURE, ICMStatus.UNKNOWN);
-					//System.out.println("-x-x-x-( 02 )-x-x-x-");
-					failCounter++; // increase the failure counter
-					//System.out.println("-x-x-x-( 03 )-x-x-x-");
-					try
-					{
-						//System.out.println("-x-x-x-( 04 )-x-x-x-");
-						// even if waitOnFailure is false, it's better sleep a  
-						// bit so, let's make fsi_l1 = 100 (tenth of a second)
-						if ( ! Configuration.waitOnFailure ) fsi_l1 = 100;
-						//System.out.println("-x-x-x-( 05 )-x-x-x-");
-						Thread.sleep(((online || failCounter <= fmn_l1 ? fsi_l1 : (failCounter > fmn_l2 ? fsi_l3 : fsi_l2))));
-						//System.out.println("-x-x-x-( 06 )-x-x-x-");
-					} 
-					catch (InterruptedException e1)
-					{
-						//System.out.println("-x-x-x-( 07 )-x-x-x-");
-					}
-				}
-			} 
-			catch (InterruptedException ie)
-			{
-				ie.printStackTrace();
-			}
-			// if global failure counter is equal or greater than fmn_l1, notify
-			if (failCounter >= fmn_l1)
-			{
-				notifyListeners(ICMEvent.CON_CHANGED, ICMStatus.OFFLINE);
-				if (failCounter == Integer.MAX_VALUE)
-				{
-					failCounter = fmn_l2 + 1; // prevent overflow. although unlikely, it could happen.
-				}
-			}
-		}
-		
-		System.out.println("going to leave (1)");
-
-		state = State.STOPPED;
-		notifyListeners(ICMEvent.MON_STOPPED, (icmInst.online ? ICMStatus.ONLINE : ICMStatus.OFFLINE));
-		System.out.println("going to leave (2)");
+		trace("resume");
+		monitor.resume();
 	}
 
 //	public static void terminate()
@@ -684,21 +575,126 @@ public class InternetConnectivityMonitor implements Runnable, InternetConectivit
 	{
 		public static String source = "built-in default values";
 		public static byte maxNumberOfFailuresLevel1 = 3, 
-				maxNumberOfFailuresLevel2 = 13,
-				maxListenersNumber = 15;
+				maxNumberOfFailuresLevel2 = 13;
+		// 0 means no limit at all
+		public static int maxListenersNumber = 15;
 		// ssi = success sleep interval, fsi_l1 = failure sleep interval level 1, ...
 		public static short successSleepInterval = 3000, 
 				failureSleepIntervalLevel1 = 1000,
 				failureSleepIntervalLevel2 = 5000, 
 				failureSleepIntervalLevel3 = 10000;
 		public static String notificationMode = "parallel";
+		// platform or virtual (Java 21 or later). virtual runs every probe and every 
+		// parallel notification on a virtual thread of its own
+		public static String threadMode = "platform";
 		public static java.util.List<String> urls = Arrays.asList(
 				"http://www.google.com.br", "https://registro.br",
 				"http://www.facebook.com.br", "http://www.ibm.com.br", "https://www.itau.com.br",
 				"http://www.receita.fazenda.gov.br", "https://www.bradesco.com.br"
 				);
 		public static boolean waitOnFailure = true;
+		// hd = hedge delay in milliseconds, hf = hedge fanout (0 turns hedging off)
+		public static short hedgeDelay = 250;
+		public static byte hedgeFanout = 0;
+		// urlconnection (http through HttpURLConnection), selector (non-blocking tcp connect) 
+		// httpclient (asynchronous requests through java.net.http.HttpClient) or socket (http 
+		// over a plain socket timing dns, tcp, tls and first byte apart)
+		public static String probeEngine = "urlconnection";
+		// GET or HEAD. HEAD (ideally against 204-style urls) never gets a body back
+		public static String probeMethod = "GET";
+		// time in seconds the urls' addresses are kept in the dns cache (0 turns it off)
+		public static short dnsCacheTtl = 60;
+		// fixed (success and failure sleep intervals above) or adaptive (between min and max below)
+		public static String scheduleMode = "fixed";
+		public static short minSleepInterval = 500,
+				maxSleepInterval = 30000;
+		// how the next url is picked: round-robin, latency, two-choices or least-recently-failed
+		public static String selectionPolicy = "round-robin";
+		// time outs in a row to open a url's circuit and how long (in seconds) it stays open.
+		// the cool-down doubles, up to the max, every time the trial probe fails
+		public static byte breakerThreshold = 10;
+		public static short breakerCoolDown = 30,
+				breakerMaxCoolDown = 3600;
+		// number of urls (out of the last quorumTargets distinct ones probed within quorumWindow 
+		// seconds) that must agree on the status. 0 leaves it to the failure counter
+		public static byte quorumSize = 0,
+				quorumTargets = 5;
+		public static short quorumWindow = 30;
+		// local address or network interface the probes are bound to (null = default route)
+		public static String bindAddress = null,
+				bindInterface = null;
+		// time in milliseconds between link state checkings (0 turns it off, the default)
+		public static short linkPollInterval = 0;
+		// port the prometheus metrics are served on, loopback only (0 turns it off)
+		public static int metricsPort = 0;
+		// number of probes the link quality is judged on (0 turns it off). the link turns degraded 
+		// once the loss rate (%) or the latency percentile (ms) reaches its enter threshold and gets 
+		// back to normal only once both of them drop to their exit thresholds
+		public static short degradedWindow = 0;
+		public static byte degradedLossEnter = 20,
+				degradedLossExit = 10,
+				degradedPercentile = 90;
+		public static short degradedLatencyEnter = 1000,
+				degradedLatencyExit = 500;
+		// time in milliseconds a status is kept before another change is reported (0 turns it off). 
+		// besides, every change adds up the penalty (0 turns it off), which halves every half-life 
+		// seconds. changes are held back from the time it reaches suppress till it decays to reuse
+		public static short dampingDwell = 0,
+				dampingPenalty = 0,
+				dampingSuppress = 2000,
+				dampingReuse = 750,
+				dampingHalfLife = 30;
 		public final static java.util.List<String> builtinUrls = urls.stream().collect(Collectors.toList());
+
+		/**
+		 * @return the static configuration the default monitor runs with
+		 */
+		static InternetConnectivityMonitorConfiguration toConfiguration()
+		{
+			InternetConnectivityMonitorConfiguration cfg = new InternetConnectivityMonitorConfiguration();
+			cfg.setUrls(urls);
+			cfg.setMaxNumberFailuresL1(maxNumberOfFailuresLevel1);
+			cfg.setMaxNumberFailuresL2(maxNumberOfFailuresLevel2);
+			cfg.setMaxListenersNumber(maxListenersNumber);
+			cfg.setSuccessSleepTime(successSleepInterval);
+			cfg.setFailureSleepTimeL1(failureSleepIntervalLevel1);
+			cfg.setFailureSleepTimeL2(failureSleepIntervalLevel2);
+			cfg.setFailureSleepTimeL3(failureSleepIntervalLevel3);
+			cfg.setWaitOnFailure(waitOnFailure);
+			cfg.setNotificantionMode(notificationMode);
+			cfg.setThreadMode(threadMode);
+			cfg.setHedgeDelay(hedgeDelay);
+			cfg.setHedgeFanout(hedgeFanout);
+			cfg.setProbeEngine(probeEngine);
+			cfg.setProbeMethod(probeMethod);
+			cfg.setDnsCacheTtl(dnsCacheTtl);
+			cfg.setScheduleMode(scheduleMode);
+			cfg.setMinSleepTime(minSleepInterval);
+			cfg.setMaxSleepTime(maxSleepInterval);
+			cfg.setSelectionPolicy(selectionPolicy);
+			cfg.setBreakerThreshold(breakerThreshold);
+			cfg.setBreakerCoolDown(breakerCoolDown);
+			cfg.setBreakerMaxCoolDown(breakerMaxCoolDown);
+			cfg.setQuorumSize(quorumSize);
+			cfg.setQuorumTargets(quorumTargets);
+			cfg.setQuorumWindow(quorumWindow);
+			cfg.setBindAddress(bindAddress);
+			cfg.setBindInterface(bindInterface);
+			cfg.setLinkPollInterval(linkPollInterval);
+			cfg.setMetricsPort(metricsPort);
+			cfg.setDegradedWindow(degradedWindow);
+			cfg.setDegradedLossEnter(degradedLossEnter);
+			cfg.setDegradedLossExit(degradedLossExit);
+			cfg.setDegradedPercentile(degradedPercentile);
+			cfg.setDegradedLatencyEnter(degradedLatencyEnter);
+			cfg.setDegradedLatencyExit(degradedLatencyExit);
+			cfg.setDampingDwell(dampingDwell);
+			cfg.setDampingPenalty(dampingPenalty);
+			cfg.setDampingSuppress(dampingSuppress);
+			cfg.setDampingReuse(dampingReuse);
+			cfg.setDampingHalfLife(dampingHalfLife);
+			return cfg;
+		}
 	}
 	
 }
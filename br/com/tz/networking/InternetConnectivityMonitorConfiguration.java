@@ -38,8 +38,8 @@ class InternetConnectivityMonitorConfiguration
 	java.util.List<String> _urls = null;
 	
 	byte _failure_max_number_level1 = 3,   // number of failures in a row to consider connectivity to internet broken and than slow down the time between checkings
-		 _failure_max_number_level2 = 13,  // number of failures in a row to slow down the time between checkings even more
-		 _listeners_max_number = 15;       // 2020-6-6 - max number of listeners ICM must accept
+		 _failure_max_number_level2 = 13;  // number of failures in a row to slow down the time between checkings even more
+	int _listeners_max_number = 15;        // 2020-6-6 - max number of listeners ICM must accept (2026-10-18 - 0 = no limit)
 	
 	short _success_sleep_interval = 3000,		 // time in milliseconds to perform the next checking
 		  _failure_seepp_interval_level1 = 1000,  // time in milliseconds to perform the next checking when the previous one failed
@@ -47,9 +47,51 @@ class InternetConnectivityMonitorConfiguration
 		  _failure_seepp_interval_level3 = 10000; // time in milliseconds to perform the next checking when the previous one failed and the connectivity is broken for awhile
 	
 	String _notify_mode = "serial";
+	String _thread_mode = "platform"; // 2026-10-18 - platform or virtual threads for probes and notifications (process-wide)
 	
 	boolean _wait_on_failure = true; // 2020-6-5
 
+	short _hedge_delay = 250; // 2026-10-18 - time in milliseconds to wait for a probe before hedging it
+	byte _hedge_fanout = 0;   // 2026-10-18 - number of urls probed in parallel when hedging (0 = off)
+
+	String _probe_engine = "urlconnection"; // 2026-10-18 - how urls are probed
+	String _probe_method = "GET";           // 2026-10-18 - http method used by the probes
+	short _dns_cache_ttl = 60;              // 2026-10-18 - time in seconds resolved addresses are kept (process-wide)
+
+	String _schedule_mode = "fixed";        // 2026-10-18 - fixed sleep levels or adaptive interval
+	short _min_sleep_interval = 500,        // 2026-10-18 - shortest time in milliseconds between checkings when adaptive
+		  _max_sleep_interval = 30000;      // 2026-10-18 - longest time in milliseconds between checkings when adaptive
+
+	String _selection_policy = "round-robin"; // 2026-10-18 - how the next url to be probed is picked
+
+	byte _breaker_threshold = 10;     // 2026-10-18 - time outs in a row to open a url's circuit
+	short _breaker_cool_down = 30,    // 2026-10-18 - time in seconds an open circuit waits before a trial probe
+		  _breaker_max_cool_down = 3600; // 2026-10-18 - the cool-down doubles up to this many seconds
+
+	byte _quorum_size = 0,            // 2026-10-18 - number of urls that must agree on the status (0 = off)
+		 _quorum_targets = 5;         // 2026-10-18 - number of distinct urls taken into account
+	short _quorum_window = 30;        // 2026-10-18 - time in seconds an outcome is taken into account
+
+	String _bind_address = null,      // 2026-10-18 - local address the probes are bound to
+		   _bind_interface = null;    // 2026-10-18 - network interface the probes are bound to
+
+	short _link_poll_interval = 0;    // 2026-10-18 - time in milliseconds between link state checkings (0 = off)
+
+	int _metrics_port = 0;            // 2026-10-18 - port the prometheus metrics are served on (0 = off)
+
+	short _degraded_window = 0;       // 2026-10-18 - number of probes the link quality is judged on (0 = off)
+	byte _degraded_loss_enter = 20,   // 2026-10-18 - loss rate (%) that turns the link degraded
+		 _degraded_loss_exit = 10,    // 2026-10-18 - loss rate (%) the link must drop to to get back to normal
+		 _degraded_percentile = 90;   // 2026-10-18 - latency percentile checked against the thresholds
+	short _degraded_latency_enter = 1000, // 2026-10-18 - latency in milliseconds that turns the link degraded
+		  _degraded_latency_exit = 500;   // 2026-10-18 - latency in milliseconds the link must drop to to get back to normal
+
+	short _damping_dwell = 0,         // 2026-10-18 - time in milliseconds a status is kept before another change is reported (0 = off)
+		  _damping_penalty = 0,       // 2026-10-18 - penalty each connectivity change adds up (0 = off)
+		  _damping_suppress = 2000,   // 2026-10-18 - penalty at which changes start being held back
+		  _damping_reuse = 750,       // 2026-10-18 - penalty at which changes are reported again
+		  _damping_half_life = 30;    // 2026-10-18 - time in seconds the penalty takes to halve
+
 	public InternetConnectivityMonitorConfiguration() 
 	{
 	}
@@ -171,19 +213,554 @@ class InternetConnectivityMonitorConfiguration
 	// added Jun 6, 2020
 	@Path("listeners")
 	@Element(name="max")
-	public void setMaxListenersNumber( byte b )
+	public void setMaxListenersNumber( int n )
 	{
-		this._listeners_max_number = b;
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid max number of listeners '" + n + "'");
+		this._listeners_max_number = n;
 	}
 
 	// added Jun 6, 2020
 	@Path("listeners")
 	@Element(name="max")
-	public byte getMaxListenersNumber()
+	public int getMaxListenersNumber()
 	{
 		return this._listeners_max_number;
 	}
 
+	// added Oct 18, 2026
+	@Path("hedging")
+	@Element(name="delay", required=false)
+	public void setHedgeDelay( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid hedge delay '" + n + "'");
+		this._hedge_delay = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("hedging")
+	@Element(name="delay", required=false)
+	public short getHedgeDelay()
+	{
+		return this._hedge_delay;
+	}
+
+	// added Oct 18, 2026
+	@Path("hedging")
+	@Element(name="fanout", required=false)
+	public void setHedgeFanout( byte n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid hedge fanout '" + n + "'");
+		this._hedge_fanout = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("hedging")
+	@Element(name="fanout", required=false)
+	public byte getHedgeFanout()
+	{
+		return this._hedge_fanout;
+	}
+
+	// added Oct 18, 2026
+	@Path("probe")
+	@Element(name="engine", required=false)
+	public void setProbeEngine( String engine )
+	{
+		if ( engine == null || engine.isEmpty() ) return;
+		if ( !(engine.equalsIgnoreCase("urlconnection") || engine.equalsIgnoreCase("selector") 
+				|| engine.equalsIgnoreCase("httpclient") || engine.equalsIgnoreCase("socket")) )
+		{
+			throw new IllegalArgumentException("Invalid probe engine '" + engine + "'");
+		}
+		_probe_engine = engine;
+	}
+
+	// added Oct 18, 2026
+	@Path("probe")
+	@Element(name="engine", required=false)
+	public String getProbeEngine()
+	{
+		return this._probe_engine;
+	}
+
+	// added Oct 18, 2026
+	@Path("probe")
+	@Element(name="method", required=false)
+	public void setProbeMethod( String method )
+	{
+		if ( method == null || method.isEmpty() ) return;
+		if ( !(method.equalsIgnoreCase("GET") || method.equalsIgnoreCase("HEAD")) )
+		{
+			throw new IllegalArgumentException("Invalid probe method '" + method + "'");
+		}
+		_probe_method = method.toUpperCase();
+	}
+
+	// added Oct 18, 2026
+	@Path("probe")
+	@Element(name="method", required=false)
+	public String getProbeMethod()
+	{
+		return this._probe_method;
+	}
+
+	// added Oct 18, 2026
+	@Path("dns")
+	@Element(name="ttl", required=false)
+	public void setDnsCacheTtl( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid dns cache ttl '" + n + "'");
+		this._dns_cache_ttl = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("dns")
+	@Element(name="ttl", required=false)
+	public short getDnsCacheTtl()
+	{
+		return this._dns_cache_ttl;
+	}
+
+	// added Oct 18, 2026
+	@Path("schedule")
+	@Element(name="mode", required=false)
+	public void setScheduleMode( String mode )
+	{
+		if ( mode == null || mode.isEmpty() ) return;
+		if ( !(mode.equalsIgnoreCase("fixed") || mode.equalsIgnoreCase("adaptive")) )
+		{
+			throw new IllegalArgumentException("Invalid schedule mode '" + mode + "'");
+		}
+		_schedule_mode = mode;
+	}
+
+	// added Oct 18, 2026
+	@Path("schedule")
+	@Element(name="mode", required=false)
+	public String getScheduleMode()
+	{
+		return this._schedule_mode;
+	}
+
+	// added Oct 18, 2026
+	@Path("schedule")
+	@Element(name="min", required=false)
+	public void setMinSleepTime( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid minimum sleep time '" + n + "'");
+		this._min_sleep_interval = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("schedule")
+	@Element(name="min", required=false)
+	public short getMinSleepTime()
+	{
+		return this._min_sleep_interval;
+	}
+
+	// added Oct 18, 2026
+	@Path("schedule")
+	@Element(name="max", required=false)
+	public void setMaxSleepTime( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid maximum sleep time '" + n + "'");
+		this._max_sleep_interval = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("schedule")
+	@Element(name="max", required=false)
+	public short getMaxSleepTime()
+	{
+		return this._max_sleep_interval;
+	}
+
+	// added Oct 18, 2026
+	@Path("probe")
+	@Element(name="selection", required=false)
+	public void setSelectionPolicy( String policy )
+	{
+		if ( policy == null || policy.isEmpty() ) return;
+		policy = policy.toLowerCase();
+		if ( !(policy.equals("round-robin") || policy.equals("latency") 
+				|| policy.equals("two-choices") || policy.equals("least-recently-failed")) )
+		{
+			throw new IllegalArgumentException("Invalid selection policy '" + policy + "'");
+		}
+		_selection_policy = policy;
+	}
+
+	// added Oct 18, 2026
+	@Path("probe")
+	@Element(name="selection", required=false)
+	public String getSelectionPolicy()
+	{
+		return this._selection_policy;
+	}
+
+	// added Oct 18, 2026
+	@Path("breaker")
+	@Element(name="threshold", required=false)
+	public void setBreakerThreshold( byte n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid breaker threshold '" + n + "'");
+		this._breaker_threshold = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("breaker")
+	@Element(name="threshold", required=false)
+	public byte getBreakerThreshold()
+	{
+		return this._breaker_threshold;
+	}
+
+	// added Oct 18, 2026
+	@Path("breaker")
+	@Element(name="cool-down", required=false)
+	public void setBreakerCoolDown( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid breaker cool-down '" + n + "'");
+		this._breaker_cool_down = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("breaker")
+	@Element(name="cool-down", required=false)
+	public short getBreakerCoolDown()
+	{
+		return this._breaker_cool_down;
+	}
+
+	// added Oct 18, 2026
+	@Path("breaker")
+	@Element(name="max-cool-down", required=false)
+	public void setBreakerMaxCoolDown( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid breaker max cool-down '" + n + "'");
+		this._breaker_max_cool_down = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("breaker")
+	@Element(name="max-cool-down", required=false)
+	public short getBreakerMaxCoolDown()
+	{
+		return this._breaker_max_cool_down;
+	}
+
+	// added Oct 18, 2026
+	@Path("quorum")
+	@Element(name="size", required=false)
+	public void setQuorumSize( byte n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid quorum size '" + n + "'");
+		this._quorum_size = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("quorum")
+	@Element(name="size", required=false)
+	public byte getQuorumSize()
+	{
+		return this._quorum_size;
+	}
+
+	// added Oct 18, 2026
+	@Path("quorum")
+	@Element(name="targets", required=false)
+	public void setQuorumTargets( byte n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid quorum targets '" + n + "'");
+		this._quorum_targets = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("quorum")
+	@Element(name="targets", required=false)
+	public byte getQuorumTargets()
+	{
+		return this._quorum_targets;
+	}
+
+	// added Oct 18, 2026
+	@Path("quorum")
+	@Element(name="window", required=false)
+	public void setQuorumWindow( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid quorum window '" + n + "'");
+		this._quorum_window = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("quorum")
+	@Element(name="window", required=false)
+	public short getQuorumWindow()
+	{
+		return this._quorum_window;
+	}
+
+	// added Oct 18, 2026
+	@Path("bind")
+	@Element(name="address", required=false)
+	public void setBindAddress( String address )
+	{
+		if ( address == null || address.isEmpty() ) return;
+		// names would be resolved through dns and the address must be a local one
+		if ( !address.matches("[0-9a-fA-F.:]+(%\\w+)?") || !(address.contains(".") || address.contains(":")) )
+		{
+			throw new IllegalArgumentException("Invalid bind address '" + address + "'");
+		}
+		_bind_address = address;
+	}
+
+	// added Oct 18, 2026
+	@Path("bind")
+	@Element(name="address", required=false)
+	public String getBindAddress()
+	{
+		return this._bind_address;
+	}
+
+	// added Oct 18, 2026
+	@Path("bind")
+	@Element(name="interface", required=false)
+	public void setBindInterface( String iface )
+	{
+		if ( iface == null || iface.isEmpty() ) return;
+		_bind_interface = iface;
+	}
+
+	// added Oct 18, 2026
+	@Path("bind")
+	@Element(name="interface", required=false)
+	public String getBindInterface()
+	{
+		return this._bind_interface;
+	}
+
+	// added Oct 18, 2026
+	@Path("link")
+	@Element(name="poll", required=false)
+	public void setLinkPollInterval( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid link poll interval '" + n + "'");
+		this._link_poll_interval = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("link")
+	@Element(name="poll", required=false)
+	public short getLinkPollInterval()
+	{
+		return this._link_poll_interval;
+	}
+
+	// added Oct 18, 2026
+	@Path("metrics")
+	@Element(name="port", required=false)
+	public void setMetricsPort( int n )
+	{
+		if ( n < 0 || n > 65535 ) throw new IllegalArgumentException("Invalid metrics port '" + n + "'");
+		this._metrics_port = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("metrics")
+	@Element(name="port", required=false)
+	public int getMetricsPort()
+	{
+		return this._metrics_port;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded")
+	@Element(name="window", required=false)
+	public void setDegradedWindow( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid degraded window '" + n + "'");
+		this._degraded_window = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded")
+	@Element(name="window", required=false)
+	public short getDegradedWindow()
+	{
+		return this._degraded_window;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/loss")
+	@Element(name="enter", required=false)
+	public void setDegradedLossEnter( byte n )
+	{
+		if ( n <= 0 || n > 100 ) throw new IllegalArgumentException("Invalid degraded loss enter '" + n + "'");
+		this._degraded_loss_enter = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/loss")
+	@Element(name="enter", required=false)
+	public byte getDegradedLossEnter()
+	{
+		return this._degraded_loss_enter;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/loss")
+	@Element(name="exit", required=false)
+	public void setDegradedLossExit( byte n )
+	{
+		if ( n < 0 || n > 100 ) throw new IllegalArgumentException("Invalid degraded loss exit '" + n + "'");
+		this._degraded_loss_exit = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/loss")
+	@Element(name="exit", required=false)
+	public byte getDegradedLossExit()
+	{
+		return this._degraded_loss_exit;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/latency")
+	@Element(name="percentile", required=false)
+	public void setDegradedPercentile( byte n )
+	{
+		if ( n <= 0 || n > 100 ) throw new IllegalArgumentException("Invalid degraded percentile '" + n + "'");
+		this._degraded_percentile = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/latency")
+	@Element(name="percentile", required=false)
+	public byte getDegradedPercentile()
+	{
+		return this._degraded_percentile;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/latency")
+	@Element(name="enter", required=false)
+	public void setDegradedLatencyEnter( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid degraded latency enter '" + n + "'");
+		this._degraded_latency_enter = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/latency")
+	@Element(name="enter", required=false)
+	public short getDegradedLatencyEnter()
+	{
+		return this._degraded_latency_enter;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/latency")
+	@Element(name="exit", required=false)
+	public void setDegradedLatencyExit( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid degraded latency exit '" + n + "'");
+		this._degraded_latency_exit = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("degraded/latency")
+	@Element(name="exit", required=false)
+	public short getDegradedLatencyExit()
+	{
+		return this._degraded_latency_exit;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="dwell", required=false)
+	public void setDampingDwell( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid damping dwell '" + n + "'");
+		this._damping_dwell = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="dwell", required=false)
+	public short getDampingDwell()
+	{
+		return this._damping_dwell;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="penalty", required=false)
+	public void setDampingPenalty( short n )
+	{
+		if ( n < 0 ) throw new IllegalArgumentException("Invalid damping penalty '" + n + "'");
+		this._damping_penalty = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="penalty", required=false)
+	public short getDampingPenalty()
+	{
+		return this._damping_penalty;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="suppress", required=false)
+	public void setDampingSuppress( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid damping suppress '" + n + "'");
+		this._damping_suppress = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="suppress", required=false)
+	public short getDampingSuppress()
+	{
+		return this._damping_suppress;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="reuse", required=false)
+	public void setDampingReuse( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid damping reuse '" + n + "'");
+		this._damping_reuse = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="reuse", required=false)
+	public short getDampingReuse()
+	{
+		return this._damping_reuse;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="half-life", required=false)
+	public void setDampingHalfLife( short n )
+	{
+		if ( n <= 0 ) throw new IllegalArgumentException("Invalid damping half-life '" + n + "'");
+		this._damping_half_life = n;
+	}
+
+	// added Oct 18, 2026
+	@Path("damping")
+	@Element(name="half-life", required=false)
+	public short getDampingHalfLife()
+	{
+		return this._damping_half_life;
+	}
+
 	@Path("notification")
 	@Element(name="mode")
 	public void setNotificantionMode( String mode )
@@ -202,6 +779,27 @@ class InternetConnectivityMonitorConfiguration
 	{
 		return this._notify_mode;
 	}
+
+	// added Oct 18, 2026
+	@Path("notification")
+	@Element(name="threads", required=false)
+	public void setThreadMode( String mode )
+	{
+		if ( mode == null || mode.isEmpty() ) return;
+		if ( !(mode.equalsIgnoreCase("platform") || mode.equalsIgnoreCase("virtual")) )
+		{
+			throw new IllegalArgumentException("Invalid thread mode '" + mode + "'");
+		}
+		_thread_mode = mode;
+	}
+
+	// added Oct 18, 2026
+	@Path("notification")
+	@Element(name="threads", required=false)
+	public String getThreadMode()
+	{
+		return this._thread_mode;
+	}
 	
 //	public static java.util.List<String> getInnerUrls()
 //	{
@@ -289,6 +887,7 @@ class InternetConnectivityMonitorConfiguration
 					"\n\nThe xml template below must be used\n\n" + 
 					"<config>\n" + 
 					"   <!-- add many urls as possible -->\n" + 
+					"   <!-- besides http(s), tcp://host:port, dns://server/name and icmp://host are accepted -->\n" +
 					"   <urls class=\"java.util.ArrayList\">\n" + 
 					"      <url>http://www.google.com.br</url>\n" + 
 					"      <url>https://registro.br</url>\n" + 
@@ -325,7 +924,95 @@ class InternetConnectivityMonitorConfiguration
 					"      <!-- parallel tells icm to notify listeners using threads -->\n" +
 					"      <!-- serial tells to not use threads -->\n" +
 					"      <mode>parallel</mode>\n" + 
+					"      <!-- valid values platform or virtual (java 21 or later) -->\n" +
+					"      <!-- virtual runs every probe and parallel notification on a virtual thread -->\n" +
+					"      <!-- process-wide: only the static configuration sets it, not the monitors' own -->\n" +
+					"      <threads>platform</threads>\n" +
 					"   </notification>\n" +
+					"   <hedging>\n" +
+					"      <!-- time in milliseconds to wait for a probe before firing probes at other urls -->\n" +
+					"      <delay>250</delay>\n" +
+					"      <!-- number of other urls probed in parallel. 0 turns hedging off -->\n" +
+					"      <fanout>0</fanout>\n" +
+					"   </hedging>\n" +
+					"   <probe>\n" +
+					"      <!-- valid values are urlconnection, selector, httpclient or socket -->\n" +
+					"      <!-- urlconnection establishes http connections, one thread per probe in flight -->\n" +
+					"      <!-- selector opens non-blocking tcp connections watched by a single thread -->\n" +
+					"      <!-- httpclient sends asynchronous requests over pooled, HTTP/2 capable connections -->\n" +
+					"      <!-- socket speaks http over a plain socket timing dns, tcp, tls and first byte apart -->\n" +
+					"      <engine>urlconnection</engine>\n" +
+					"      <!-- valid values are GET or HEAD. HEAD never gets a body back -->\n" +
+					"      <method>GET</method>\n" +
+					"      <!-- valid values are round-robin, latency, two-choices or least-recently-failed -->\n" +
+					"      <selection>round-robin</selection>\n" +
+					"   </probe>\n" +
+					"   <dns>\n" +
+					"      <!-- time in seconds resolved addresses are kept. 0 turns the cache off -->\n" +
+					"      <!-- process-wide: only the static configuration sets it, not the monitors' own -->\n" +
+					"      <ttl>60</ttl>\n" +
+					"   </dns>\n" +
+					"   <schedule>\n" +
+					"      <!-- valid values are fixed or adaptive -->\n" +
+					"      <!-- fixed uses the sleep times above, adaptive moves between min and max following the link's stability -->\n" +
+					"      <mode>fixed</mode>\n" +
+					"      <min>500</min>\n" +
+					"      <max>30000</max>\n" +
+					"   </schedule>\n" +
+					"   <breaker>\n" +
+					"      <!-- time outs in a row to leave a url aside -->\n" +
+					"      <threshold>10</threshold>\n" +
+					"      <!-- time in seconds before a trial probe. it doubles, up to max-cool-down, every time the trial fails -->\n" +
+					"      <cool-down>30</cool-down>\n" +
+					"      <max-cool-down>3600</max-cool-down>\n" +
+					"   </breaker>\n" +
+					"   <quorum>\n" +
+					"      <!-- number of urls that must agree on the status. 0 leaves it to the failure limits -->\n" +
+					"      <size>0</size>\n" +
+					"      <!-- number of distinct urls (the last ones probed) taken into account -->\n" +
+					"      <targets>5</targets>\n" +
+					"      <!-- time in seconds an outcome is taken into account -->\n" +
+					"      <window>30</window>\n" +
+					"   </quorum>\n" +
+					"   <bind>\n" +
+					"      <!-- local address (or network interface) the probes go out through. -->\n" +
+					"      <!-- leave both out to go through the default route -->\n" +
+					"      <!-- <address>192.168.0.10</address> -->\n" +
+					"      <!-- <interface>eth0</interface> -->\n" +
+					"   </bind>\n" +
+					"   <link>\n" +
+					"      <!-- time in milliseconds between link state checkings. 0 turns it off (the default) -->\n" +
+					"      <poll>0</poll>\n" +
+					"   </link>\n" +
+					"   <metrics>\n" +
+					"      <!-- port the prometheus metrics are served on (http://127.0.0.1:port/metrics). 0 turns it off -->\n" +
+					"      <port>0</port>\n" +
+					"   </metrics>\n" +
+					"   <degraded>\n" +
+					"      <!-- number of latest probes the link quality is judged on. 0 turns it off -->\n" +
+					"      <window>0</window>\n" +
+					"      <!-- loss rate (%) that turns the link degraded and the one it must drop to to get back to normal -->\n" +
+					"      <loss>\n" +
+					"         <enter>20</enter>\n" +
+					"         <exit>10</exit>\n" +
+					"      </loss>\n" +
+					"      <!-- the same for the latency percentile, in milliseconds -->\n" +
+					"      <latency>\n" +
+					"         <percentile>90</percentile>\n" +
+					"         <enter>1000</enter>\n" +
+					"         <exit>500</exit>\n" +
+					"      </latency>\n" +
+					"   </degraded>\n" +
+					"   <damping>\n" +
+					"      <!-- time in milliseconds a status is kept before another change is reported. 0 turns it off -->\n" +
+					"      <dwell>0</dwell>\n" +
+					"      <!-- penalty each change adds up (0 turns it off). it halves every half-life seconds. once it reaches -->\n" +
+					"      <!-- suppress, changes are held back until it decays to reuse and only the newest one is reported -->\n" +
+					"      <penalty>0</penalty>\n" +
+					"      <suppress>2000</suppress>\n" +
+					"      <reuse>750</reuse>\n" +
+					"      <half-life>30</half-life>\n" +
+					"   </damping>\n" +
 					"</config>"
 			);
 		}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+/**
+ * Percentiles of the probes' latencies in microseconds at a given moment.<br />
+ * They are -1 while no probe succeeded. Percentiles are the upper bound 
+ * of the histogram bucket they fall into, 12.5% above the actual value at 
+ * most.
+ * 
+ * @author Fabio Tezedor
+ */
+public final class LatencySnapshot
+{
+	// number of probes taken into account
+	public final long count;
+	public final long p50;
+	public final long p90;
+	public final long p99;
+	public final long max;
+
+	LatencySnapshot(final long count, final long p50, final long p90, final long p99, final long max)
+	{
+		this.count = count;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.max = max;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "(count=" + count + ", p50=" + p50 + "us, p90=" + p90 + "us, p99=" + p99 + "us, max=" + max + "us)";
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the state of the network links and tells the monitors right away 
+ * when they go down or come back up.<br />
+ * A cable pulled out or a Wi-Fi dropped is only noticed by the http probes 
+ * after they fail for a few cycles while the kernel knows it at once. On 
+ * Linux the link state is read from /sys/class/net/&lt;iface&gt;/operstate 
+ * and carrier, elsewhere NetworkInterface.isUp() is asked. The polling runs 
+ * on the timer shared by all monitors and sends nothing through the network.
+ * 
+ * @author Fabio Tezedor
+ */
+final class LinkWatcher
+{
+	private static final File SYS = new File("/sys/class/net");
+
+	// a monitor and the link it depends on
+	private static final class Watch
+	{
+		final ConnectivityMonitor monitor;
+		// null stands for any link but the loopback
+		final String iface;
+		// time in milliseconds between checkings the monitor asked for
+		final long millis;
+		volatile boolean up = true;
+
+		Watch(final ConnectivityMonitor monitor, final String iface, final long millis)
+		{
+			this.monitor = monitor;
+			this.iface = iface;
+			this.millis = millis;
+		}
+	}
+
+	private static final List<Watch> watches = new ArrayList<Watch>();
+	private static ScheduledFuture<?> task = null;
+	private static long interval = Long.MAX_VALUE;
+	// sysfs entries are just a few bytes long
+	private static final byte[] buffer = new byte[32];
+
+	private LinkWatcher()
+	{
+	}
+
+	/**
+	 * starts watching the link on behalf of a monitor
+	 * 
+	 * @param monitor - the monitor to be told about the link changes
+	 * @param iface - the interface the monitor depends on, null for any of them
+	 * @param millis - time in milliseconds between checkings
+	 */
+	static synchronized void watch(final ConnectivityMonitor monitor, final String iface, final long millis)
+	{
+		watches.removeIf(w -> w.monitor == monitor);
+		Watch w = new Watch(monitor, iface, millis);
+		w.up = isUp(iface);
+		watches.add(w);
+		reschedule();
+	}
+
+	/**
+	 * stops watching the link on behalf of a monitor
+	 */
+	static synchronized void unwatch(final ConnectivityMonitor monitor)
+	{
+		watches.removeIf(w -> w.monitor == monitor);
+		reschedule();
+	}
+
+	// the link is checked as often as the most demanding monitor left wants
+	private static void reschedule()
+	{
+		long millis = Long.MAX_VALUE;
+		for (Watch w : watches) millis = Math.min(millis, w.millis);
+		if (task != null && millis == interval) return;
+		if (task != null) task.cancel(false);
+		task = null;
+		interval = millis;
+		if (watches.isEmpty()) return;
+		task = ProbeRuntime.timer().scheduleWithFixedDelay(LinkWatcher::poll, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	private static void poll()
+	{
+		try
+		{
+			synchronized (LinkWatcher.class)
+			{
+				for (int i = 0; i < watches.size(); i++)
+				{
+					Watch w = watches.get(i);
+					boolean up = isUp(w.iface);
+					if (up == w.up) continue;
+					w.up = up;
+					// monitors are told on the executor: they notify their listeners right away and 
+					// a slow one must not hold the timer up. the link is read when the task runs so 
+					// the last change wins even if tasks overtake each other
+					ProbeRuntime.executor().execute(() -> w.monitor.linkChanged(w.up));
+				}
+			}
+		}
+		catch (Throwable t)
+		{
+			// an exception would cancel the polling for good
+			t.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param iface - name of the interface, null for any of them but the loopback. with 
+	 *                no interface named it can't be told which link the probes go through 
+	 *                (a ppp or a tunnel is as good as a cable) so any link up will do
+	 * @return {@code true} if the link is up or its state could not be told
+	 */
+	private static boolean isUp(final String iface)
+	{
+		if (SYS.isDirectory())
+		{
+			if (iface != null) return isUp(new File(SYS, iface));
+			File[] links = SYS.listFiles();
+			if (links == null) return true;
+			for (File link : links)
+			{
+				if (!link.getName().equals("lo") && isUp(link)) return true;
+			}
+			// nothing but the loopback, there is no link to tell about
+			return links.length <= 1;
+		}
+		try
+		{
+			if (iface != null)
+			{
+				NetworkInterface ni = NetworkInterface.getByName(iface);
+				return (ni == null || ni.isUp());
+			}
+			for (Enumeration<NetworkInterface> e = NetworkInterface.getNetworkInterfaces(); e.hasMoreElements(); )
+			{
+				NetworkInterface ni = e.nextElement();
+				if (!ni.isLoopback() && !ni.isVirtual() && ni.isUp()) return true;
+			}
+			return false;
+		}
+		catch (SocketException e)
+		{
+			return true;
+		}
+	}
+
+	private static boolean isUp(final File link)
+	{
+		String state = read(new File(link, "operstate"));
+		// no such interface or it can't be told (tunnels report 'unknown' while working fine)
+		if (state == null) return true;
+		if (state.equals("down") || state.equals("lowerlayerdown") || state.equals("notpresent")) return false;
+		// carrier can't be read while the interface is administratively down
+		String carrier = read(new File(link, "carrier"));
+		return !"0".equals(carrier);
+	}
+
+	private static String read(final File file)
+	{
+		try (FileInputStream in = new FileInputStream(file))
+		{
+			int n = in.read(buffer);
+			if (n <= 0) return null;
+			while (n > 0 && Character.isWhitespace(buffer[n - 1])) n--;
+			return new String(buffer, 0, n, java.nio.charset.StandardCharsets.US_ASCII);
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	}
+}
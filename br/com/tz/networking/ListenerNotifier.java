@@ -29,4 +29,21 @@ public interface ListenerNotifier extends Runnable
 
 	void notify(ICMEvent event, ICMStatus status);
 
+	/**
+	 * @return notifications handed over that were not delivered yet
+	 */
+	default int backlog()
+	{
+		return 0;
+	}
+
+	/**
+	 * @return whether it is called by the thread that publishes the event. the 
+	 *         ones subscribed to the event bus are not
+	 */
+	default boolean inline()
+	{
+		return true;
+	}
+
 }
\ No newline at end of file
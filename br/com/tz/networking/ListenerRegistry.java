@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Listeners registered with a monitor.<br />
+ * Every registration publishes a brand new array, which is never changed 
+ * afterwards, so notifications walk a snapshot with neither a lock nor a 
+ * copy while listeners come and go from other threads. Each 
+ * listener's position is indexed by identity, thus finding it takes O(1) 
+ * no matter how many there are. Internal listeners are kept ahead of the 
+ * others and are notified first. The notifiers called inline are kept apart 
+ * as well, the others get their notifications from the event bus.
+ * 
+ * @author Fabio Tezedor
+ */
+final class ListenerRegistry
+{
+	private static final ListenerNotifier[] EMPTY = new ListenerNotifier[0];
+
+	// published on every change, read without any lock
+	private volatile ListenerNotifier[] notifiers = EMPTY;
+	// the ones called by the thread that publishes the events
+	private volatile ListenerNotifier[] inline = EMPTY;
+	// listener behind each notifier, same positions. only touched holding the lock
+	private InternetConectivityChangeListener[] keys = new InternetConectivityChangeListener[0];
+	private final IdentityHashMap<InternetConectivityChangeListener, Integer> index = 
+			new IdentityHashMap<InternetConectivityChangeListener, Integer>();
+	private volatile int internal = 0;
+
+	/**
+	 * @return the listeners' notifiers. the array must not be changed
+	 */
+	ListenerNotifier[] snapshot()
+	{
+		return notifiers;
+	}
+
+	/**
+	 * @return the notifiers called inline. the array must not be changed
+	 */
+	ListenerNotifier[] inline()
+	{
+		return inline;
+	}
+
+	synchronized boolean contains(final InternetConectivityChangeListener listener)
+	{
+		return index.containsKey(listener);
+	}
+
+	/**
+	 * @param internal - whether the listener is an internal one
+	 * @return false if the listener was registered already
+	 */
+	synchronized boolean add(final InternetConectivityChangeListener listener, final ListenerNotifier notifier, 
+			final boolean internal)
+	{
+		if (index.containsKey(listener)) return false;
+		int n = keys.length;
+		ListenerNotifier[] ns = Arrays.copyOf(notifiers, n + 1);
+		keys = Arrays.copyOf(keys, n + 1);
+		int pos = n;
+		// internal listeners go right after the other internal ones. the first external one 
+		// makes room for it by moving to the end
+		if (internal)
+		{
+			pos = this.internal;
+			ns[n] = ns[pos];
+			keys[n] = keys[pos];
+			if (n != pos) index.put(keys[n], n);
+			this.internal++;
+		}
+		ns[pos] = notifier;
+		keys[pos] = listener;
+		index.put(listener, pos);
+		publish(ns);
+		return true;
+	}
+
+	/**
+	 * @return the notifier of the listener removed, null if it wasn't registered
+	 */
+	synchronized ListenerNotifier remove(final InternetConectivityChangeListener listener)
+	{
+		Integer i = index.get(listener);
+		// internal listeners are there for good
+		if (i == null || i < internal) return null;
+		int pos = i, last = keys.length - 1;
+		ListenerNotifier removed = notifiers[pos];
+		ListenerNotifier[] ns = Arrays.copyOf(notifiers, last);
+		// the last one takes the place of the one removed
+		if (pos != last)
+		{
+			ns[pos] = notifiers[last];
+			keys[pos] = keys[last];
+			index.put(keys[pos], pos);
+		}
+		keys = Arrays.copyOf(keys, last);
+		index.remove(listener);
+		publish(ns);
+		return removed;
+	}
+
+	private void publish(final ListenerNotifier[] ns)
+	{
+		int n = 0;
+		for (ListenerNotifier l : ns) if (l.inline()) n++;
+		ListenerNotifier[] is = new ListenerNotifier[n];
+		n = 0;
+		for (ListenerNotifier l : ns) if (l.inline()) is[n++] = l;
+		inline = is;
+		notifiers = ns;
+	}
+
+	/**
+	 * @return number of listeners, internal ones excluded
+	 */
+	int size()
+	{
+		return notifiers.length - internal;
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * Notifies its listener from the events published on the monitor's event bus.<br />
+ * It keeps its own sequence on the bus and a single drain at a time, run on the 
+ * shared executor, delivers the events in order, so no thread is held by the 
+ * listener while it has nothing to be told. Notifications meant for this very 
+ * listener (its initial status) go through a lock-free mailbox of its own and 
+ * come first. When the listener falls behind, the connectivity changes that 
+ * piled up in a row are conflated: it is told about the newest one only, plus 
+ * the newest one that was different from what it knew when the whole row would 
+ * bring it back to the same status, so it never misses that something happened 
+ * and it always ends up on the latest status. Monitor events are never conflated.
+ * 
+ * @author Fabio Tezedor
+ */
+final class MailboxListenerNotifier implements ListenerNotifier, EventBus.Subscriber
+{
+	private static final class Notification
+	{
+		final ICMEvent event;
+		final ICMStatus status;
+
+		Notification(final ICMEvent event, final ICMStatus status)
+		{
+			this.event = event;
+			this.status = status;
+		}
+	}
+
+	private final InternetConectivityChangeListener listener;
+	private final EventBus bus;
+	private final LatencyHistogram times;
+
+	// last sequence of the bus taken by the drain
+	private volatile long sequence;
+	private final ConcurrentLinkedQueue<Notification> mailbox = new ConcurrentLinkedQueue<Notification>();
+	// wake-ups not seen by the drain yet. the one that brings it up from zero starts the drain
+	private final AtomicInteger signals = new AtomicInteger();
+
+	// only touched by the drain, which runs one at a time
+	private ICMStatus told = null;
+	private ICMEvent lastEvent = null, detourEvent = null;
+	private ICMStatus lastStatus = null, detourStatus = null;
+
+	MailboxListenerNotifier(final InternetConectivityChangeListener listener, final EventBus bus, final long sequence, 
+			final LatencyHistogram times)
+	{
+		this.listener = listener;
+		this.bus = bus;
+		this.times = times;
+		this.sequence = sequence;
+	}
+
+	// equals() must compare the object with the listener 
+	// object instead of the instance of this very class
+	@Override
+	public boolean equals( Object arg0 )
+	{
+		return this.listener.equals(arg0);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		// it equals the listener, so it must hash like it too
+		return this.listener.hashCode();
+	}
+
+	@Override
+	public boolean inline()
+	{
+		return false;
+	}
+
+	@Override
+	public int backlog()
+	{
+		return (int) Math.max(0, bus.cursor() - sequence) + mailbox.size();
+	}
+
+	/**
+	 * notifies this listener alone
+	 */
+	@Override
+	public void notify( final ICMEvent event, final ICMStatus status )
+	{
+		mailbox.offer(new Notification(event, status));
+		signal();
+	}
+
+	@Override
+	public void signal()
+	{
+		if ( signals.getAndIncrement() == 0 ) ProbeRuntime.executor().execute(this);
+	}
+
+	// the drain
+	@Override
+	public void run()
+	{
+		int seen;
+		do
+		{
+			seen = signals.get();
+			Notification n;
+			while ( (n = mailbox.poll()) != null ) take(n.event, n.status);
+			long hi = bus.cursor(), next = sequence + 1;
+			for ( ; next <= hi; next++ )
+			{
+				int slot = bus.slot(next);
+				// the publisher lapped us while reading it. go on from the oldest one still there
+				if ( bus.claimed() - next >= EventBus.SIZE )
+				{
+					long resume = bus.claimed() - EventBus.SIZE + 1;
+					System.err.println("A listener (" + listener.getClass().getName() + ") is too slow, " 
+							+ (resume - next) + " notifications were lost");
+					next = resume - 1;
+					continue;
+				}
+				take(EventBus.event(slot), EventBus.status(slot));
+			}
+			sequence = hi;
+			flush();
+		}
+		while ( signals.addAndGet(-seen) > 0 );
+	}
+
+	private void take(final ICMEvent event, final ICMStatus status)
+	{
+		if ( FlapDamper.damps(event) )
+		{
+			// the row goes on
+			if ( status != told )
+			{
+				detourEvent = event;
+				detourStatus = status;
+			}
+			lastEvent = event;
+			lastStatus = status;
+		}
+		else
+		{
+			flush();
+			deliver(event, status);
+		}
+	}
+
+	// delivers the row of connectivity changes taken so far
+	private void flush()
+	{
+		if ( lastEvent == null ) return;
+		// the row ended where it started but the listener must know it went somewhere else
+		if ( lastStatus == told && detourEvent != null ) deliver(detourEvent, detourStatus);
+		deliver(lastEvent, lastStatus);
+		lastEvent = detourEvent = null;
+		lastStatus = detourStatus = null;
+	}
+
+	private void deliver(final ICMEvent event, final ICMStatus status)
+	{
+		told = status;
+		long t0 = System.nanoTime();
+		try
+		{
+			listener.onIcmStatusChange(event, status);
+		}
+		catch (Throwable t)
+		{
+			// a faulty listener must not stop its drain
+			t.printStackTrace();
+		}
+		times.record(System.nanoTime() - t0);
+	}
+}
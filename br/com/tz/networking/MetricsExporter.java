@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import br.com.tz.networking.InternetConnectivityMonitor.ICMEvent;
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * Serves the metrics of every running monitor in the Prometheus text format 
+ * at http://127.0.0.1:&lt;port&gt;/metrics.<br />
+ * It listens on the loopback only, a local agent is expected to scrape it. 
+ * Requests are served by the http server's own thread, one at a time, and 
+ * the text and its bytes are built into buffers reused from one scrape to 
+ * the next.<br />
+ * Latencies are exported as histograms whose buckets are the histograms' own 
+ * log-linear ones folded into one per power of two, so each url takes 30 
+ * series instead of 226. The server stops along with the last monitor.
+ * 
+ * @author Fabio Tezedor
+ */
+final class MetricsExporter
+{
+	private static HttpServer server = null;
+
+	private static final StringBuilder text = new StringBuilder(8192);
+	private static ByteBuffer bytes = ByteBuffer.allocate(8192);
+	private static final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+	// cumulative counts of the histogram being written
+	private static final long[] buckets = new long[LatencyHistogram.BOUNDS.length + 1];
+	private static final ICMEvent[] EVENTS = ICMEvent.values();
+	private static final ICMStatus[] STATUSES = ICMStatus.values();
+
+	private MetricsExporter()
+	{
+	}
+
+	/**
+	 * starts serving the metrics unless it is already doing so
+	 * 
+	 * @param port - port to listen on (loopback only)
+	 */
+	static synchronized void start(final int port)
+	{
+		if (server != null) return;
+		try
+		{
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+			server.createContext("/metrics", MetricsExporter::handle);
+			server.start();
+			if (InternetConnectivityMonitor.verbose) System.out.println("Metrics are served at http://127.0.0.1:" + port + "/metrics");
+		}
+		catch (IOException e)
+		{
+			server = null;
+			System.err.println("Metrics cannot be served on port " + port + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * stops serving the metrics once no monitor is left running. a monitor must be added 
+	 * to the started ones before calling start() and removed from them before calling it
+	 */
+	static synchronized void stopIfIdle()
+	{
+		if (server == null || !ConnectivityMonitor.started.isEmpty()) return;
+		server.stop(0);
+		server = null;
+		if (InternetConnectivityMonitor.verbose) System.out.println("Metrics are not served anymore");
+	}
+
+	private static synchronized void handle(final HttpExchange exchange) throws IOException
+	{
+		try
+		{
+			if (!exchange.getRequestMethod().equals("GET"))
+			{
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			text.setLength(0);
+			write(text);
+			int length = encode();
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+			exchange.sendResponseHeaders(200, length);
+			try (OutputStream os = exchange.getResponseBody())
+			{
+				os.write(bytes.array(), 0, length);
+			}
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	// encodes the text into the byte buffer, which grows whenever it gets too small
+	private static int encode()
+	{
+		while (true)
+		{
+			bytes.clear();
+			encoder.reset();
+			CoderResult r = encoder.encode(CharBuffer.wrap(text), bytes, true);
+			if (!r.isOverflow()) r = encoder.flush(bytes);
+			if (!r.isOverflow()) return bytes.position();
+			bytes = ByteBuffer.allocate(bytes.capacity() * 2);
+		}
+	}
+
+	private static void write(final StringBuilder sb)
+	{
+		header(sb, "icm_up", "gauge", "1 if the connectivity was last seen online");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_up", m, null, (m.isOnline() ? 1 : 0));
+
+		header(sb, "icm_degraded", "gauge", "1 if the connectivity is online but lossy or slow");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_degraded", m, null, (m.isDegraded() ? 1 : 0));
+
+		header(sb, "icm_paused", "gauge", "1 if the monitor is paused");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_paused", m, null, (m.getState() == InternetConnectivityMonitor.State.PAUSED ? 1 : 0));
+
+		header(sb, "icm_probes_total", "counter", "probes made");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_probes_total", m, null, m.probes.get());
+
+		header(sb, "icm_failures_total", "counter", "failed probes by kind of failure");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+		{
+			for (ProbeResult.Failure f : ProbeResult.Failure.values())
+			{
+				if (f == ProbeResult.Failure.NONE) continue;
+				sb.append("icm_failures_total{monitor=\"");
+				escape(sb, m.getName()).append("\",type=\"").append(f.name().toLowerCase()).append("\"} ")
+						.append(m.failures.get(f.ordinal())).append('\n');
+			}
+		}
+
+		header(sb, "icm_listeners", "gauge", "listeners registered");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_listeners", m, null, m.listenerCount());
+
+		header(sb, "icm_notifier_backlog", "gauge", "notifications not delivered yet");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_notifier_backlog", m, null, m.notifierBacklog());
+
+		header(sb, "icm_damped_events_total", "counter", "connectivity changes held back by flap damping and superseded by newer ones, so never reported");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			sample(sb, "icm_damped_events_total", m, null, m.getDampedEvents());
+
+		// the samples of a metric must be kept together, so the statistics are walked once for each of them
+		header(sb, "icm_target_failures", "gauge", "failure counter of each url");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			for (TargetStatistics ts : m.getTargetStatistics())
+				sample(sb, "icm_target_failures", m, ts.url, ts.failCounter);
+
+		header(sb, "icm_target_probes_total", "counter", "probes made to each url");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			for (TargetStatistics ts : m.getTargetStatistics())
+				sample(sb, "icm_target_probes_total", m, ts.url, ts.probes);
+
+		header(sb, "icm_target_latency_microseconds", "histogram", "latency of the successful probes to each url");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			for (UrlNode node : m.targets())
+				histogram(sb, "icm_target_latency_microseconds", m, node.url, node.latency);
+
+		header(sb, "icm_latency_microseconds", "histogram", "latency of the successful probes of all monitors");
+		histogram(sb, "icm_latency_microseconds", null, null, LatencyHistogram.GLOBAL);
+
+		header(sb, "icm_transitions_total", "counter", "events reported to the listeners by event and status");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+		{
+			for (int i = 0; i < m.transitions.length(); i++)
+			{
+				long n = m.transitions.get(i);
+				// the ones that never happened are left out
+				if (n == 0) continue;
+				sb.append("icm_transitions_total{monitor=\"");
+				escape(sb, m.getName()).append("\",event=\"").append(EVENTS[i / STATUSES.length].name().toLowerCase())
+						.append("\",status=\"").append(STATUSES[i % STATUSES.length].name().toLowerCase())
+						.append("\"} ").append(n).append('\n');
+			}
+		}
+
+		header(sb, "icm_listener_dispatch_microseconds", "histogram", "time each call to a listener or subscriber took");
+		for (ConnectivityMonitor m : ConnectivityMonitor.started)
+			histogram(sb, "icm_listener_dispatch_microseconds", m, null, m.listenerTimes);
+
+		header(sb, "icm_timer_pending", "gauge", "ticks and releases waiting for their time on the shared timer");
+		sb.append("icm_timer_pending ").append(ProbeRuntime.pendingTimers()).append('\n');
+
+		// virtual threads are not pooled, there is nothing to tell about them
+		ThreadPoolExecutor pool = ProbeRuntime.pool();
+		if (pool == null) return;
+		header(sb, "icm_pool_threads", "gauge", "threads of the shared probe pool");
+		sb.append("icm_pool_threads ").append(pool.getPoolSize()).append('\n');
+		header(sb, "icm_pool_active_threads", "gauge", "threads of the shared probe pool running a task");
+		sb.append("icm_pool_active_threads ").append(pool.getActiveCount()).append('\n');
+		header(sb, "icm_pool_largest_threads", "gauge", "most threads the shared probe pool ever had at once");
+		sb.append("icm_pool_largest_threads ").append(pool.getLargestPoolSize()).append('\n');
+		header(sb, "icm_pool_tasks_total", "counter", "tasks the shared probe pool has run");
+		sb.append("icm_pool_tasks_total ").append(pool.getCompletedTaskCount()).append('\n');
+	}
+
+	// cumulative buckets, one per power of two, sum and count of a histogram
+	private static void histogram(final StringBuilder sb, final String name, final ConnectivityMonitor m, 
+			final String url, final LatencyHistogram h)
+	{
+		long sum = h.cumulative(buckets);
+		for (int i = 0; i < buckets.length; i++)
+		{
+			sb.append(name).append("_bucket{");
+			labels(sb, m, url);
+			sb.append("le=\"");
+			if (i < LatencyHistogram.BOUNDS.length) sb.append(LatencyHistogram.BOUNDS[i]);
+			else sb.append("+Inf");
+			sb.append("\"} ").append(buckets[i]).append('\n');
+		}
+		braces(sb.append(name).append("_sum"), m, url).append(' ').append(sum).append('\n');
+		braces(sb.append(name).append("_count"), m, url).append(' ').append(buckets[buckets.length - 1]).append('\n');
+	}
+
+	// the labels within braces, nothing at all when there is none
+	private static StringBuilder braces(final StringBuilder sb, final ConnectivityMonitor m, final String url)
+	{
+		if (m == null) return sb;
+		labels(sb.append('{'), m, url).setCharAt(sb.length() - 1, '}');
+		return sb;
+	}
+
+	// monitor and url labels (when given) followed by a comma
+	private static StringBuilder labels(final StringBuilder sb, final ConnectivityMonitor m, final String url)
+	{
+		if (m != null) escape(sb.append("monitor=\""), m.getName()).append("\",");
+		if (url != null) escape(sb.append("url=\""), url).append("\",");
+		return sb;
+	}
+
+	private static void header(final StringBuilder sb, final String name, final String type, final String help)
+	{
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(final StringBuilder sb, final String name, final ConnectivityMonitor m, 
+			final String url, final long value)
+	{
+		braces(sb.append(name), m, url).append(' ').append(value).append('\n');
+	}
+
+	// label values must have backslashes, quotes and line feeds escaped
+	private static StringBuilder escape(final StringBuilder sb, final String s)
+	{
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			if (c == '\\' || c == '"') sb.append('\\').append(c);
+			else if (c == '\n') sb.append("\\n");
+			else sb.append(c);
+		}
+		return sb;
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Exposes a monitor through JMX. See {@link ConnectivityMonitorMXBean}.
+ * 
+ * @author Fabio Tezedor
+ */
+final class MonitorManagement implements ConnectivityMonitorMXBean
+{
+	private final ConnectivityMonitor monitor;
+	private ObjectName objectName = null;
+
+	MonitorManagement(final ConnectivityMonitor monitor)
+	{
+		this.monitor = monitor;
+	}
+
+	/**
+	 * registers the monitor in the platform's MBean server. a name already taken 
+	 * by another monitor is only reported
+	 */
+	synchronized void register()
+	{
+		if (objectName != null) return;
+		try
+		{
+			ObjectName on = new ObjectName("br.com.tz.networking:type=ConnectivityMonitor,name=" + ObjectName.quote(monitor.getName()));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(new StandardMBean(this, ConnectivityMonitorMXBean.class, true), on);
+			objectName = on;
+		}
+		catch (JMException e)
+		{
+			System.err.println("Monitor '" + monitor.getName() + "' could not be registered through JMX: " + e.getMessage());
+		}
+	}
+
+	synchronized void unregister()
+	{
+		if (objectName == null) return;
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		}
+		catch (JMException e)
+		{
+			// it's gone anyway
+		}
+		objectName = null;
+	}
+
+	@Override
+	public String getState()
+	{
+		return monitor.getState().name();
+	}
+
+	@Override
+	public String getStatus()
+	{
+		return (monitor.isOnline() ? (monitor.isDegraded() ? "DEGRADED" : "ONLINE") : "OFFLINE");
+	}
+
+	@Override
+	public long getProbes()
+	{
+		return monitor.probes.get();
+	}
+
+	@Override
+	public double getProbesPerSecond()
+	{
+		return monitor.probesPerSecond();
+	}
+
+	@Override
+	public Map<String, Long> getFailuresByType()
+	{
+		Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for (ProbeResult.Failure f : ProbeResult.Failure.values())
+		{
+			if (f != ProbeResult.Failure.NONE) map.put(f.name(), monitor.failures.get(f.ordinal()));
+		}
+		return map;
+	}
+
+	@Override
+	public Map<String, Integer> getFailCounters()
+	{
+		Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+		for (TargetStatistics ts : monitor.getTargetStatistics()) map.put(ts.url, ts.failCounter);
+		return map;
+	}
+
+	@Override
+	public Map<String, long[]> getLatencyPercentiles()
+	{
+		Map<String, long[]> map = new LinkedHashMap<String, long[]>();
+		for (TargetStatistics ts : monitor.getTargetStatistics()) map.put(ts.url, percentiles(ts.latency));
+		return map;
+	}
+
+	@Override
+	public long[] getGlobalLatencyPercentiles()
+	{
+		return percentiles(LatencyHistogram.GLOBAL.snapshot());
+	}
+
+	private static long[] percentiles(final LatencySnapshot s)
+	{
+		return new long[] {s.p50, s.p90, s.p99, s.max};
+	}
+
+	@Override
+	public int getListenerCount()
+	{
+		return monitor.listenerCount();
+	}
+
+	@Override
+	public int getNotifierBacklog()
+	{
+		return monitor.notifierBacklog();
+	}
+
+	@Override
+	public long getDampedEvents()
+	{
+		return monitor.getDampedEvents();
+	}
+
+	@Override
+	public void pause()
+	{
+		monitor.pause();
+	}
+
+	@Override
+	public void resume()
+	{
+		monitor.resume();
+	}
+
+	@Override
+	public void forceProbe()
+	{
+		monitor.probeNow();
+	}
+}
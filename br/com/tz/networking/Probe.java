@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.net.InetAddress;
+import java.net.URI;
+
+/**
+ * Checks whether a target given by a non-http url can be reached.<br />
+ * Each probe handles one or more url schemes (tcp://, dns://, ...) and is 
+ * picked by the scheme of the urls in the configuration. Besides the built-in 
+ * ones, probes are discovered through {@link java.util.ServiceLoader}: list 
+ * the implementing classes in META-INF/services/br.com.tz.networking.Probe. 
+ * A probe discovered that way takes the place of a built-in one handling 
+ * the same scheme. Urls starting with http:// and https:// are always 
+ * handled by the probe engine (GET or HEAD, as the probe method says).
+ * <p/>
+ * Probes are called by several threads at once so they must be stateless 
+ * or thread-safe. They block until they're done.
+ * 
+ * @author Fabio Tezedor
+ */
+public interface Probe
+{
+	/**
+	 * @return the url schemes handled by the probe
+	 */
+	String[] schemes();
+
+	/**
+	 * @return the port probed when the url does not tell one, -1 if ports mean nothing to the probe
+	 */
+	default int defaultPort()
+	{
+		return -1;
+	}
+
+	/**
+	 * @return whether the urls must tell a port when there is no default one. urls 
+	 *         that don't are dropped as malformed
+	 */
+	default boolean requiresPort()
+	{
+		return false;
+	}
+
+	/**
+	 * @return whether the urls must tell a host. urls that don't are dropped as malformed
+	 */
+	default boolean requiresHost()
+	{
+		return true;
+	}
+
+	/**
+	 * probes the target
+	 * 
+	 * @param target - the url as it is in the configuration
+	 * @param local - local address the probe must be bound to, {@code null} for the default route
+	 * @param timeout - time in milliseconds the probe is allowed to take
+	 * @return the outcome. failures are reported through it rather than thrown
+	 */
+	ProbeResult probe(URI target, InetAddress local, int timeout);
+}
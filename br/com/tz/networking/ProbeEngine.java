@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A probe engine is in charge of checking whether a url node can be reached.<br />
+ * Every probe is handed back as a future so a single cycle can have many of them
+ * in flight. Engines must release the node once they are really done with it,
+ * even when the future gets cancelled from the outside.
+ * 
+ * @author Fabio Tezedor
+ */
+interface ProbeEngine
+{
+	/**
+	 * starts probing the url node
+	 * 
+	 * @param node - the url node to be probed
+	 * @return future completed with the node itself or, in case of failure, with an IOException
+	 */
+	CompletableFuture<UrlNode> probe(UrlNode node);
+
+	/**
+	 * probes the url node and waits for the outcome. interrupting the waiting 
+	 * thread cancels the probe
+	 * 
+	 * @param node - the url node to be probed
+	 * @throws IOException if the node could not be reached
+	 */
+	default void probeAndWait(final UrlNode node) throws IOException, InterruptedException
+	{
+		CompletableFuture<UrlNode> future = probe(node);
+		try
+		{
+			future.get();
+		}
+		catch (InterruptedException e)
+		{
+			future.cancel(false);
+			throw e;
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * gives back the engine registered under the name informed
+	 * 
+	 * @param name - urlconnection (default), selector, httpclient or socket
+	 * @return {@code ProbeEngine} object
+	 */
+	static ProbeEngine create(final String name)
+	{
+		if ( name == null || name.isEmpty() || name.equalsIgnoreCase("urlconnection") ) 
+			return UrlConnectionProbeEngine.getInstance();
+		if ( name.equalsIgnoreCase("selector") ) 
+			return SelectorProbeEngine.getInstance();
+		if ( name.equalsIgnoreCase("httpclient") ) 
+			return HttpClientProbeEngine.getInstance();
+		if ( name.equalsIgnoreCase("socket") ) 
+			return SocketProbeEngine.getInstance();
+		throw new IllegalArgumentException("Invalid probe engine '" + name + "'");
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+/**
+ * Outcome of a probe: how long it took and, when it failed, what kind of 
+ * failure it was.
+ * 
+ * @author Fabio Tezedor
+ */
+public final class ProbeResult
+{
+	public static enum Failure
+	{
+		// NONE: it succeeded, DNS: name resolution, CONNECT: connection refused or reset, 
+		// TIMEOUT: no answer in time, TLS: handshake, UNREACHABLE: no route to the host, 
+		// PROTOCOL: an answer that makes no sense, OTHER: anything else
+		NONE, DNS, CONNECT, TIMEOUT, TLS, UNREACHABLE, PROTOCOL, OTHER
+	}
+
+	// time in nanoseconds the probe took
+	public final long latency;
+	public final Failure failure;
+	// what went wrong, null if it succeeded
+	public final String message;
+
+	private ProbeResult(final long latency, final Failure failure, final String message)
+	{
+		this.latency = latency;
+		this.failure = failure;
+		this.message = message;
+	}
+
+	/**
+	 * @param latency - time in nanoseconds the probe took
+	 */
+	public static ProbeResult success(final long latency)
+	{
+		return new ProbeResult(latency, Failure.NONE, null);
+	}
+
+	/**
+	 * @param failure - the kind of failure
+	 * @param latency - time in nanoseconds the probe took until it failed
+	 * @param message - what went wrong
+	 */
+	public static ProbeResult failure(final Failure failure, final long latency, final String message)
+	{
+		if (failure == Failure.NONE) throw new IllegalArgumentException("A failure must not be NONE");
+		return new ProbeResult(latency, failure, message);
+	}
+
+	/**
+	 * @param latency - time in nanoseconds the probe took until it failed
+	 * @param t - the exception it failed with
+	 */
+	public static ProbeResult failure(final long latency, final Throwable t)
+	{
+		return failure(classify(t), latency, String.valueOf(t.getMessage()));
+	}
+
+	public boolean succeeded()
+	{
+		return failure == Failure.NONE;
+	}
+
+	/**
+	 * tells the kind of failure an exception thrown by a probe stands for
+	 */
+	public static Failure classify(final Throwable t)
+	{
+		if (t == null) return Failure.NONE;
+		if (t instanceof UnknownHostException) return Failure.DNS;
+		if (t instanceof SocketTimeoutException || t instanceof java.net.http.HttpTimeoutException) return Failure.TIMEOUT;
+		if (t instanceof NoRouteToHostException) return Failure.UNREACHABLE;
+		if (t instanceof javax.net.ssl.SSLException) return Failure.TLS;
+		if (t instanceof ConnectException || t instanceof java.net.SocketException)
+		{
+			String m = String.valueOf(t.getMessage());
+			if (m.contains("timed out")) return Failure.TIMEOUT;
+			if (m.contains("unreachable")) return Failure.UNREACHABLE;
+			return Failure.CONNECT;
+		}
+		if (t instanceof java.net.ProtocolException) return Failure.PROTOCOL;
+		if (String.valueOf(t.getMessage()).contains("timed out")) return Failure.TIMEOUT;
+		return Failure.OTHER;
+	}
+
+	/**
+	 * @return the exception the probe engines throw for this kind of failure, so failed 
+	 *         probes are handled alike no matter which probe they come from
+	 */
+	IOException toException()
+	{
+		switch (failure)
+		{
+		case DNS:
+			return new UnknownHostException(message);
+		case TIMEOUT:
+			// the message must tell it timed out
+			return new SocketTimeoutException(message != null && message.contains("timed out") ? message : "probe timed out: " + message);
+		case UNREACHABLE:
+			return new NoRouteToHostException(message);
+		case CONNECT:
+			return new ConnectException(message);
+		default:
+			return new IOException(failure.name().toLowerCase() + " failure: " + message);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "(failure=" + failure + ", latency=" + (latency / 1000) + "us" + (message == null ? "" : ", message=" + message) + ")";
+	}
+}
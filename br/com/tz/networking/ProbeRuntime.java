@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threads shared by every monitor running in the JVM.<br />
+ * A single timer thread keeps track of when each monitor is due to probe 
+ * again and the probes themselves run on a shared executor, so monitors 
+ * don't hold any thread of their own while waiting for the next tick.
+ * 
+ * @author Fabio Tezedor
+ */
+final class ProbeRuntime
+{
+	// probes are blocking so each one needs a thread of its own while in flight. 
+	// virtual ones, when asked for, don't pin a platform thread while blocked
+	private static final boolean virtual = VirtualThreads.enabled();
+	// a cached pool otherwise, kept as such so its usage can be exported
+	private static final ThreadPoolExecutor pool = virtual ? null : 
+			new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), 
+			r -> {
+					Thread t = new Thread(r);
+					t.setName("icm-probe-" + t.getName().toLowerCase());
+					t.setDaemon(true);
+					return t;
+				}
+			);
+	private static final ExecutorService es = virtual ? VirtualThreads.executor() : pool;
+
+	// fires the monitors' ticks. it only hands them over to the executor so one thread is enough
+	private static final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, 
+			r -> {
+					Thread t = new Thread(r, "ICM-Timer");
+					t.setDaemon(true);
+					return t;
+				}
+			);
+	static
+	{
+		// ticks called off (they are, on every pause and forced probe) don't linger in the queue
+		timer.setRemoveOnCancelPolicy(true);
+	}
+
+	private ProbeRuntime()
+	{
+	}
+
+	/**
+	 * @return the executor probes and monitor cycles run on
+	 */
+	static ExecutorService executor()
+	{
+		return es;
+	}
+
+	/**
+	 * @return true if the executor runs each task on a virtual thread of its own
+	 */
+	static boolean virtual()
+	{
+		return virtual;
+	}
+
+	/**
+	 * @return the pool of platform threads the executor is made of, null when it runs 
+	 *         virtual threads
+	 */
+	static ThreadPoolExecutor pool()
+	{
+		return pool;
+	}
+
+	/**
+	 * @return ticks and releases waiting for their time
+	 */
+	static int pendingTimers()
+	{
+		return timer.getQueue().size();
+	}
+
+	/**
+	 * @return the timer that fires the monitors' ticks
+	 */
+	static ScheduledExecutorService timer()
+	{
+		return timer;
+	}
+}
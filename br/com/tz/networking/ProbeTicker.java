@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces the probes at a fixed rate on the monotonic clock.<br />
+ * Sleeping for the interval after each probe makes the actual period the 
+ * interval plus however long the probe took, so it drifts and stretches 
+ * when connections time out. Here the ticks lie on a grid instead: the 
+ * next one is due one period after the previous one was due. A probe that 
+ * overruns one or more ticks makes them skipped rather than fired one 
+ * after the other to catch up.
+ * 
+ * @author Fabio Tezedor
+ */
+final class ProbeTicker
+{
+	// when the last tick was due (System.nanoTime)
+	private long last = System.nanoTime();
+	// ticks missed because the probes took longer than the period
+	private long skipped = 0;
+
+	/**
+	 * works out when the next tick is due. the period might change from tick to tick, 
+	 * in that case the next one is due 'period' after the last one
+	 * 
+	 * @param period - time in milliseconds between ticks
+	 * @return time in nanoseconds from now to the next tick
+	 */
+	long next(final long period)
+	{
+		final long step = TimeUnit.MILLISECONDS.toNanos(Math.max(period, 1));
+		long next = last + step;
+		long now = System.nanoTime();
+		if (now - next > 0)
+		{
+			// skip the ticks missed, the next one is the first still ahead
+			long missed = (now - next) / step + 1;
+			skipped += missed;
+			next += missed * step;
+		}
+		last = next;
+		return Math.max(0, next - System.nanoTime());
+	}
+
+	/**
+	 * starts the grid over from now, after the monitor was paused for instance
+	 */
+	void reset()
+	{
+		last = System.nanoTime();
+	}
+
+	/**
+	 * @return how many ticks were skipped so far
+	 */
+	long skipped()
+	{
+		return skipped;
+	}
+}
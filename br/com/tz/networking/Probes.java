@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Keeps the probes by the url schemes they handle. The built-in ones are
+ * registered first so the ones discovered through the ServiceLoader can
+ * take their place.
+ * 
+ * @author Fabio Tezedor
+ */
+final class Probes
+{
+	private static final Map<String, Probe> registry = load();
+
+	private Probes()
+	{
+	}
+
+	private static Map<String, Probe> load()
+	{
+		Map<String, Probe> map = new HashMap<String, Probe>();
+		register(map, new TcpProbe());
+		register(map, new DnsProbe());
+		register(map, new ReachableProbe());
+		try
+		{
+			for (Probe p : ServiceLoader.load(Probe.class)) register(map, p);
+		}
+		catch (ServiceConfigurationError e)
+		{
+			// a broken provider must not take the built-in probes down with it
+			e.printStackTrace();
+		}
+		return map;
+	}
+
+	private static void register(final Map<String, Probe> map, final Probe probe)
+	{
+		for (String scheme : probe.schemes())
+		{
+			if (InternetConnectivityMonitor.verbose && map.containsKey(scheme.toLowerCase()))
+				System.out.println(probe.getClass().getName() + " takes over the " + scheme + " scheme");
+			map.put(scheme.toLowerCase(), probe);
+		}
+	}
+
+	/**
+	 * @param scheme - the url scheme
+	 * @return the probe handling it or {@code null} if there is none
+	 */
+	static Probe forScheme(final String scheme)
+	{
+		return (scheme == null ? null : registry.get(scheme.toLowerCase()));
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.Arrays;
+
+/**
+ * Tells whether the connectivity is degraded out of the latest probes.<br />
+ * The link turns degraded when the loss rate or the latency percentile of the 
+ * last 'size' probes reaches its enter threshold, and it only gets back to 
+ * normal once both of them drop to their exit thresholds, so a link hovering 
+ * around a single threshold does not flap. Nothing is decided until half of 
+ * the window has been filled up. Outcomes are kept in a fixed-size ring buffer 
+ * and the percentile is worked out on a scratch array so nothing is allocated.
+ * 
+ * @author Fabio Tezedor
+ */
+final class QualityWindow
+{
+	private final int lossEnter, lossExit, percentile;
+	private final long latencyEnter, latencyExit;
+
+	// ring buffer of the latest outcomes. a negative latency stands for a lost probe
+	private final long[] latencies;
+	private final long[] scratch;
+	private int head = 0, count = 0;
+	private boolean degraded = false;
+
+	/**
+	 * @param size - number of probes taken into account
+	 * @param lossEnter - loss rate (%) that turns the link degraded
+	 * @param lossExit - loss rate (%) the link must drop to in order to get back to normal
+	 * @param percentile - latency percentile checked against the latency thresholds
+	 * @param latencyEnter - latency in milliseconds that turns the link degraded
+	 * @param latencyExit - latency in milliseconds the link must drop to in order to get back to normal
+	 */
+	QualityWindow(final int size, final int lossEnter, final int lossExit, 
+			final int percentile, final int latencyEnter, final int latencyExit)
+	{
+		if ( size <= 0 ) throw new IllegalArgumentException("Invalid degraded window '" + size + "'");
+		if ( lossExit > lossEnter ) 
+			throw new IllegalArgumentException("Degraded loss exit must not be greater than " + lossEnter);
+		if ( latencyExit > latencyEnter ) 
+			throw new IllegalArgumentException("Degraded latency exit must not be greater than " + latencyEnter);
+		this.lossEnter = lossEnter;
+		this.lossExit = lossExit;
+		this.percentile = percentile;
+		this.latencyEnter = latencyEnter * 1_000_000L;
+		this.latencyExit = latencyExit * 1_000_000L;
+		this.latencies = new long[size];
+		this.scratch = new long[size];
+	}
+
+	/**
+	 * records a probe's outcome
+	 * 
+	 * @param nanos - how long the probe took, a negative value if it failed
+	 * @return whether the connectivity is degraded after this outcome
+	 */
+	synchronized boolean record(final long nanos)
+	{
+		latencies[head] = nanos;
+		head = (head + 1) % latencies.length;
+		if ( count < latencies.length ) count++;
+		if ( count * 2 < latencies.length ) return degraded;
+
+		int lost = 0, ok = 0;
+		for ( int i = 0; i < count; i++ )
+		{
+			if ( latencies[i] < 0 ) lost++;
+			else scratch[ok++] = latencies[i];
+		}
+		int loss = lost * 100 / count;
+		long latency = 0;
+		if ( ok > 0 )
+		{
+			Arrays.sort(scratch, 0, ok);
+			latency = scratch[Math.max(0, Math.min(ok - 1, (ok * percentile + 99) / 100 - 1))];
+		}
+
+		if ( degraded ) degraded = !(loss <= lossExit && latency <= latencyExit);
+		else degraded = (loss >= lossEnter || latency >= latencyEnter);
+		return degraded;
+	}
+
+	/**
+	 * forgets every outcome. the link starts over as a healthy one
+	 */
+	synchronized void reset()
+	{
+		head = count = 0;
+		degraded = false;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import br.com.tz.networking.InternetConnectivityMonitor.ICMStatus;
+
+/**
+ * Decides the connectivity status out of the latest outcomes of several urls.<br />
+ * The status is ONLINE (or OFFLINE) only when at least 'quorum' of the last 
+ * 'targets' distinct urls probed within the time window agree on it. Only the 
+ * newest outcome of each url counts. Outcomes are kept in a fixed-size ring 
+ * buffer made of primitive arrays so recording and deciding never allocate.
+ * 
+ * @author Fabio Tezedor
+ */
+final class QuorumWindow
+{
+	private final int quorum, targets;
+	private final long window;
+
+	// ring buffer. it has room for a few outcomes per url since the same url may be probed again
+	private final int[] ids;
+	private final long[] times;
+	private final boolean[] oks;
+	private int head = 0, count = 0;
+
+	/**
+	 * @param quorum - number of urls that must agree
+	 * @param targets - number of distinct urls taken into account
+	 * @param window - time in milliseconds an outcome is taken into account
+	 */
+	QuorumWindow(final int quorum, final int targets, final long window)
+	{
+		if ( quorum <= 0 || quorum > targets ) 
+			throw new IllegalArgumentException("Quorum must be between 1 and " + targets);
+		this.quorum = quorum;
+		this.targets = targets;
+		this.window = window;
+		this.ids = new int[targets * 4];
+		this.times = new long[ids.length];
+		this.oks = new boolean[ids.length];
+	}
+
+	/**
+	 * records a probe's outcome. probes can be completed by several threads
+	 * 
+	 * @param id - the url node's id
+	 * @param ok - whether the url could be reached
+	 * @param now - current time in milliseconds
+	 */
+	synchronized void record(final int id, final boolean ok, final long now)
+	{
+		ids[head] = id;
+		times[head] = now;
+		oks[head] = ok;
+		head = (head + 1) % ids.length;
+		if ( count < ids.length ) count++;
+	}
+
+	/**
+	 * @param now - current time in milliseconds
+	 * @return ONLINE or OFFLINE if there is a quorum, UNKNOWN otherwise
+	 */
+	synchronized ICMStatus verdict(final long now)
+	{
+		int distinct = 0, up = 0, down = 0;
+		// from the newest to the oldest
+		for ( int i = 0; i < count && distinct < targets; i++ )
+		{
+			int k = index(i);
+			if ( now - times[k] > window ) break;
+			// a newer outcome of the same url has been counted already
+			boolean seen = false;
+			for ( int j = 0; j < i && !seen; j++ ) seen = (ids[index(j)] == ids[k]);
+			if ( seen ) continue;
+			distinct++;
+			if ( oks[k] ) up++; 
+			else down++;
+		}
+		if ( up >= quorum && up >= down ) return ICMStatus.ONLINE;
+		if ( down >= quorum ) return ICMStatus.OFFLINE;
+		return ICMStatus.UNKNOWN;
+	}
+
+	// position of the i-th newest outcome
+	private int index(final int i)
+	{
+		return (head - 1 - i + ids.length) % ids.length;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.URI;
+
+/**
+ * Checks icmp://host (or ping://host) through InetAddress.isReachable().<br />
+ * It sends an ICMP echo request when the JVM is allowed to, otherwise it 
+ * tries a tcp connection to the echo port. Either way no http is involved.
+ * 
+ * @author Fabio Tezedor
+ */
+final class ReachableProbe implements Probe
+{
+	@Override
+	public String[] schemes()
+	{
+		return new String[] {"icmp", "ping"};
+	}
+
+	@Override
+	public ProbeResult probe(final URI target, final InetAddress local, final int timeout)
+	{
+		long t0 = System.nanoTime();
+		try
+		{
+			InetAddress address = DnsCache.resolve(target.getHost());
+			NetworkInterface ni = (local == null ? null : NetworkInterface.getByInetAddress(local));
+			if (address.isReachable(ni, 0, timeout)) return ProbeResult.success(System.nanoTime() - t0);
+			return ProbeResult.failure(ProbeResult.Failure.TIMEOUT, System.nanoTime() - t0, "echo timed out");
+		}
+		catch (IOException | RuntimeException e)
+		{
+			// failures are reported, never thrown, whatever they are
+			return ProbeResult.failure(System.nanoTime() - t0, e);
+		}
+	}
+}
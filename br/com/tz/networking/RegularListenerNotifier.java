@@ -38,6 +38,12 @@ final class RegularListenerNotifier implements ListenerNotifier
 		return this.listener.equals(arg0);
 	}
 
+	@Override
+	public int hashCode()
+	{
+		return this.listener.hashCode();
+	}
+
 	@Override
 	public void run()
 	{
@@ -55,8 +61,15 @@ final class RegularListenerNotifier implements ListenerNotifier
 		else
 		{
 			this.fired = true;
-			this.listener.onIcmStatusChange(event, status);
-			this.fired = false;
+			try
+			{
+				this.listener.onIcmStatusChange(event, status);
+			}
+			finally
+			{
+				// a listener that threw must still be notified next time
+				this.fired = false;
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Probes url nodes by opening a plain tcp connection to their host and port.<br />
+ * Connections are non-blocking and a single I/O thread watches all of them
+ * through a selector, so dozens or thousands of targets can be in flight at 
+ * once without a thread per probe. Each connection attempt has its own deadline.
+ * 
+ * @author Fabio Tezedor
+ */
+final class SelectorProbeEngine implements ProbeEngine, Runnable
+{
+	private static SelectorProbeEngine instance = null;
+
+	private final Selector selector;
+	private final Thread thread;
+	// probes handed over by other threads waiting to be registered by the I/O thread
+	private final Queue<Pending> incoming = new ConcurrentLinkedQueue<Pending>();
+	// in-flight probes ordered by deadline. touched by the I/O thread only
+	private final PriorityQueue<Pending> deadlines = new PriorityQueue<Pending>(
+			(p1, p2) -> Long.compare(p1.deadline, p2.deadline));
+
+	private SelectorProbeEngine() throws IOException
+	{
+		this.selector = Selector.open();
+		this.thread = new Thread(this, "ICM-Selector");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * the engine and its I/O thread are created on first use
+	 */
+	static synchronized SelectorProbeEngine getInstance()
+	{
+		if ( instance == null )
+		{
+			try
+			{
+				instance = new SelectorProbeEngine();
+			}
+			catch (IOException e)
+			{
+				throw new IllegalStateException("The selector could not be opened", e);
+			}
+		}
+		return instance;
+	}
+
+	@Override
+	public CompletableFuture<UrlNode> probe(final UrlNode node)
+	{
+		final CompletableFuture<UrlNode> future = new CompletableFuture<UrlNode>();
+		SocketChannel channel = null;
+		long dns = -1, start = 0;
+		try
+		{
+			long t0 = System.nanoTime();
+			InetSocketAddress address = new InetSocketAddress(DnsCache.resolve(node.host), node.port);
+			start = System.nanoTime();
+			dns = start - t0;
+
+			channel = SocketChannel.open();
+			channel.configureBlocking(false);
+			if ( node.localAddress != null ) channel.bind(new InetSocketAddress(node.localAddress, 0));
+			// loopback connections may be established right away
+			if ( channel.connect(address) )
+			{
+				node.stages(dns, System.nanoTime() - start, -1, -1);
+				future.complete(node);
+				close(channel, node);
+				return future;
+			}
+		}
+		catch (IOException e)
+		{
+			future.completeExceptionally(e);
+			close(channel, node);
+			return future;
+		}
+
+		final Pending p = new Pending(node, channel, future, dns, start, start + UrlNode.CONNECT_TIMEOUT * 1000000L);
+		// the selector closes the channel once it's done with it, the caller may cancel it before that
+		future.whenComplete((n, t) -> {
+			if ( future.isCancelled() ) close(p.channel, p.node);
+		});
+		incoming.add(p);
+		selector.wakeup();
+		return future;
+	}
+
+	@Override
+	public void run()
+	{
+		while ( !Thread.currentThread().isInterrupted() )
+		{
+			try
+			{
+				Pending p;
+				while ( (p = incoming.poll()) != null )
+				{
+					// it might have been cancelled in the meantime
+					if ( p.future.isDone() ) continue;
+					try
+					{
+						p.channel.register(selector, SelectionKey.OP_CONNECT, p);
+						deadlines.add(p);
+					}
+					catch (IOException e)
+					{
+						complete(p, e);
+					}
+				}
+
+				// sleep until the nearest deadline unless something happens before that
+				long timeout = 0;
+				if ( !deadlines.isEmpty() )
+				{
+					timeout = Math.max(1, (deadlines.peek().deadline - System.nanoTime()) / 1000000L);
+				}
+				selector.select(timeout);
+
+				Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+				while ( it.hasNext() )
+				{
+					SelectionKey key = it.next();
+					it.remove();
+					p = (Pending) key.attachment();
+					try
+					{
+						if ( key.isValid() && p.channel.finishConnect() ) 
+						{
+							p.node.stages(p.dns, System.nanoTime() - p.start, -1, -1);
+							complete(p, null);
+						}
+					}
+					catch (IOException e)
+					{
+						complete(p, e);
+					}
+				}
+
+				long now = System.nanoTime();
+				while ( !deadlines.isEmpty() && (deadlines.peek().future.isDone() || deadlines.peek().deadline - now <= 0) )
+				{
+					p = deadlines.poll();
+					// the message mimics the one thrown by blocking connections so failures are handled alike
+					if ( !p.future.isDone() ) complete(p, new SocketTimeoutException("connect timed out"));
+				}
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * completes a connection attempt and then closes its channel. the node is released only 
+	 * after the future's callbacks (the hedger's breaker update) are done. an attempt 
+	 * cancelled in the meantime has already been closed
+	 * 
+	 * @param p - connection attempt
+	 * @param e - why it failed, {@code null} if it succeeded
+	 */
+	private static void complete(final Pending p, final IOException e)
+	{
+		if ( e == null ? p.future.complete(p.node) : p.future.completeExceptionally(e) ) close(p.channel, p.node);
+	}
+
+	private static void close(final SocketChannel channel, final UrlNode node)
+	{
+		try
+		{
+			if ( channel != null ) channel.close();
+		}
+		catch (IOException e)
+		{
+		}
+		// a bare tcp connection carries no payload at all
+		node.account(0, 0);
+		node.release();
+	}
+
+	/**
+	 * a connection attempt in flight
+	 */
+	private static final class Pending
+	{
+		final UrlNode node;
+		final SocketChannel channel;
+		final CompletableFuture<UrlNode> future;
+		final long dns;
+		final long start;
+		final long deadline;
+
+		Pending(final UrlNode node, final SocketChannel channel, final CompletableFuture<UrlNode> future, 
+				final long dns, final long start, final long deadline)
+		{
+			this.node = node;
+			this.channel = channel;
+			this.future = future;
+			this.dns = dns;
+			this.start = start;
+			this.deadline = deadline;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Speaks http over a plain socket so every stage of the probe can be timed 
+ * on its own: name resolution (through the dns cache), tcp connection, tls 
+ * handshake (https only) and the first byte of the response. Only the status 
+ * line and the headers are read, the body (if any) is never touched.
+ * 
+ * @author Fabio Tezedor
+ */
+final class SocketProbeEngine extends BlockingProbeEngine
+{
+	private static final SocketProbeEngine INSTANCE = new SocketProbeEngine();
+	// most status lines and headers fit into it at once
+	private static final int BUFFER_SIZE = 1024;
+
+	private SocketProbeEngine()
+	{
+	}
+
+	static SocketProbeEngine getInstance()
+	{
+		return INSTANCE;
+	}
+
+	@Override
+	void reach(final UrlNode node) throws IOException
+	{
+		final String method = (node.method.equalsIgnoreCase("HEAD") ? "HEAD" : "GET");
+		long sent = 0, received = 0;
+
+		long t0 = System.nanoTime();
+		InetSocketAddress address = new InetSocketAddress(DnsCache.resolve(node.host), node.port);
+		long t1 = System.nanoTime();
+
+		Socket socket = new Socket();
+		try
+		{
+			if ( node.localAddress != null ) socket.bind(new InetSocketAddress(node.localAddress, 0));
+			socket.connect(address, UrlNode.CONNECT_TIMEOUT);
+			socket.setSoTimeout(UrlNode.CONNECT_TIMEOUT * 4);
+			long t2 = System.nanoTime(), t3 = -1;
+
+			if ( node.url.regionMatches(true, 0, "https", 0, 5) )
+			{
+				SSLSocket ssl = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault()).createSocket(socket, node.host, node.port, true);
+				// same check HttpsURLConnection would do
+				SSLParameters params = ssl.getSSLParameters();
+				params.setEndpointIdentificationAlgorithm("HTTPS");
+				ssl.setSSLParameters(params);
+				ssl.startHandshake();
+				socket = ssl;
+				t3 = System.nanoTime();
+			}
+
+			String path = node.path();
+			byte[] request = (method + " " + path + " HTTP/1.1\r\n"
+					+ "Host: " + node.host + "\r\n"
+					+ "User-Agent: Mozilla/4.0\r\n"
+					+ "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+			long t4 = System.nanoTime();
+			OutputStream os = socket.getOutputStream();
+			os.write(request);
+			os.flush();
+			sent = request.length;
+
+			// the response is read in chunks, a read per byte would be a system call per byte
+			InputStream is = socket.getInputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int n = is.read(buffer);
+			if ( n < 0 ) throw new java.net.SocketException("Connection closed by " + node.host);
+			long t5 = System.nanoTime();
+			received = skipHeaders(is, buffer, n);
+
+			node.stages(t1 - t0, t2 - t1, (t3 < 0 ? -1 : t3 - t2), t5 - t4);
+		}
+		finally
+		{
+			socket.close();
+			node.account(sent, received);
+		}
+	}
+
+	/**
+	 * reads the response until the blank line that ends its headers
+	 * 
+	 * @param buffer - holds the first 'n' bytes of the response, already read
+	 * @return how many bytes the status line and the headers take
+	 */
+	private static long skipHeaders(final InputStream is, final byte[] buffer, int n) throws IOException
+	{
+		long total = 0;
+		int last4 = 0;
+		while ( n >= 0 )
+		{
+			for ( int i = 0; i < n; i++ )
+			{
+				last4 = (last4 << 8) | (buffer[i] & 0xff);
+				if ( last4 == 0x0d0a0d0a ) return total + i + 1;
+			}
+			total += n;
+			n = is.read(buffer);
+		}
+		return total;
+	}
+}
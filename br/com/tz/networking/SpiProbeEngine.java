@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Probes the url nodes whose scheme is handled by a {@link Probe} rather than 
+ * by http. Probes block so, like the other blocking engines, each one takes 
+ * a thread of the shared executor while in flight.
+ * 
+ * @author Fabio Tezedor
+ */
+final class SpiProbeEngine extends BlockingProbeEngine
+{
+	private static final SpiProbeEngine INSTANCE = new SpiProbeEngine();
+
+	private SpiProbeEngine()
+	{
+	}
+
+	static SpiProbeEngine getInstance()
+	{
+		return INSTANCE;
+	}
+
+	@Override
+	void reach(final UrlNode node) throws IOException
+	{
+		ProbeResult result = node.spi.probe(node.target, node.localAddress, UrlNode.CONNECT_TIMEOUT);
+		if (!result.succeeded()) throw result.toException();
+		// probes don't tell what they cost, only the ones that went through are counted
+		node.account(0, 0);
+	}
+
+	/**
+	 * @param http - the engine http(s) urls go to
+	 * @return an engine that hands each node to the http engine or to its probe, 
+	 *         according to the node's scheme
+	 */
+	static ProbeEngine around(final ProbeEngine http)
+	{
+		return new ProbeEngine()
+		{
+			@Override
+			public CompletableFuture<UrlNode> probe(final UrlNode node)
+			{
+				return (node.spi == null ? http : INSTANCE).probe(node);
+			}
+
+			@Override
+			public void probeAndWait(final UrlNode node) throws IOException, InterruptedException
+			{
+				(node.spi == null ? http : INSTANCE).probeAndWait(node);
+			}
+		};
+	}
+}
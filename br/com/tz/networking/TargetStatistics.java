@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+/**
+ * Snapshot of what ICM knows about one of the urls it probes.<br />
+ * Byte counters cover http requests and responses only. Response bodies 
+ * are counted as they were read, the request and the headers are estimated 
+ * from their HTTP/1.1 size. Tcp and tls overhead and HTTP/2 compression are 
+ * not taken into account, probes other than http ones count no bytes.
+ * 
+ * @author Fabio Tezedor
+ */
+public final class TargetStatistics
+{
+	public final String url;
+	public final int failCounter;
+	public final long probes;
+	public final long bytesSent;
+	public final long bytesReceived;
+	// how long each stage of the last probe took in microseconds. -1 means it was not measured
+	public final long dnsTime;
+	public final long tcpTime;
+	public final long tlsTime;
+	public final long firstByteTime;
+	// ewma of the round trip time in microseconds (-1 while unknown)
+	public final long rtt;
+	// time in milliseconds (epoch) of the last failure, 0 if it never failed
+	public final long lastFailure;
+	// state of the url's circuit breaker: CLOSED, OPEN or HALF_OPEN
+	public final String circuit;
+	// percentiles of the successful probes' latencies
+	public final LatencySnapshot latency;
+
+	TargetStatistics(final UrlNode node)
+	{
+		this.url = node.url;
+		this.failCounter = node.failCounter;
+		this.probes = node.probes.get();
+		this.bytesSent = node.bytesSent.get();
+		this.bytesReceived = node.bytesReceived.get();
+		this.dnsTime = node.dnsTime;
+		this.tcpTime = node.tcpTime;
+		this.tlsTime = node.tlsTime;
+		this.firstByteTime = node.firstByteTime;
+		this.rtt = (node.rtt < 0 ? -1 : node.rtt / 1000);
+		this.lastFailure = node.lastFailure;
+		this.circuit = node.circuit.name();
+		this.latency = node.latency.snapshot();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "(url=" + url + ", counter=" + failCounter + ", circuit=" + circuit + ", probes=" + probes 
+				+ ", sent=" + bytesSent + ", received=" + bytesReceived 
+				+ ", rtt=" + rtt + "us, dns=" + dnsTime + "us, tcp=" + tcpTime + "us, tls=" + tlsTime + "us, firstByte=" + firstByteTime + "us, latency=" + latency + ")";
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+
+/**
+ * Opens a plain tcp connection to tcp://host:port and closes it right away.<br />
+ * No payload goes through so it is the cheapest way of reaching a host that 
+ * speaks no http.
+ * 
+ * @author Fabio Tezedor
+ */
+final class TcpProbe implements Probe
+{
+	@Override
+	public String[] schemes()
+	{
+		return new String[] {"tcp"};
+	}
+
+	@Override
+	public boolean requiresPort()
+	{
+		return true;
+	}
+
+	@Override
+	public ProbeResult probe(final URI target, final InetAddress local, final int timeout)
+	{
+		long t0 = System.nanoTime();
+		try (Socket socket = new Socket())
+		{
+			if (local != null) socket.bind(new InetSocketAddress(local, 0));
+			socket.connect(new InetSocketAddress(DnsCache.resolve(target.getHost()), target.getPort()), timeout);
+			return ProbeResult.success(System.nanoTime() - t0);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			// failures are reported, never thrown, whatever they are
+			return ProbeResult.failure(System.nanoTime() - t0, e);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.Enumeration;
+
+/**
+ * Works out the local address a monitor's probes are bound to.<br />
+ * Bound to the address of one uplink, probes go out through it no matter 
+ * where the default route points to, so each uplink of a multi-homed host 
+ * can be watched by a monitor of its own.
+ * 
+ * @author Fabio Tezedor
+ */
+final class Uplink
+{
+	private Uplink()
+	{
+	}
+
+	/**
+	 * @param address - local ip address (it takes precedence over the interface)
+	 * @param iface - name of the network interface (eth0, wlan0, ...)
+	 * @return the local address to bind to or {@code null} to go through the default route
+	 * @throws SocketException if the interface does not exist or has no address
+	 * @throws UnknownHostException if the address is not a valid one
+	 */
+	static InetAddress resolve(final String address, final String iface) throws SocketException, UnknownHostException
+	{
+		if ( address != null && !address.isEmpty() ) return InetAddress.getByName(address);
+		if ( iface == null || iface.isEmpty() ) return null;
+
+		NetworkInterface ni = NetworkInterface.getByName(iface);
+		if ( ni == null ) throw new SocketException("Network interface '" + iface + "' was not found");
+
+		// ipv4 addresses first since most of the urls are still reached through them
+		InetAddress found = null;
+		for ( Enumeration<InetAddress> e = ni.getInetAddresses(); e.hasMoreElements(); )
+		{
+			InetAddress a = e.nextElement();
+			if ( a.isLinkLocalAddress() ) continue;
+			if ( a instanceof Inet4Address ) return a;
+			if ( found == null ) found = a;
+		}
+		if ( found == null ) throw new SocketException("Network interface '" + iface + "' has no address to bind to");
+		return found;
+	}
+}
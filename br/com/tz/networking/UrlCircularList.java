@@ -16,8 +16,10 @@
  */
 package br.com.tz.networking;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import br.com.tz.collections.CircularList;
@@ -26,11 +28,20 @@ import br.com.tz.collections.CircularList;
 //so the inner list entries can be drew out
 final class UrlCircularList extends CircularList<UrlNode>
 {
+	// how the next node is picked. each monitor may have its own
+	private String policy = InternetConnectivityMonitor.Configuration.selectionPolicy;
+
 	public UrlCircularList(List<UrlNode> list)
 	{
 		super(list);
 	}
 
+	public UrlCircularList(List<UrlNode> list, String policy)
+	{
+		super(list);
+		this.policy = policy;
+	}
+
 	// this constructor is intended to be used by the clone method solely 
 	// in order to allow the list's current item to be set
 	private UrlCircularList(List<UrlNode> list, int current)
@@ -48,14 +59,140 @@ final class UrlCircularList extends CircularList<UrlNode>
 		return create(Arrays.asList(urls));
 	}
 
-	public void remove(UrlNode nd)
+	/**
+	 * picks the next node to be probed according to the selection policy in use:
+	 * <ul>
+	 * <li>round-robin: one after the other</li>
+	 * <li>latency: at random, the faster the node the more likely to be picked</li>
+	 * <li>two-choices: the faster of two nodes picked at random</li>
+	 * <li>least-recently-failed: the node whose last failure is the oldest</li>
+	 * </ul>
+	 * nodes not probed yet are taken as the fastest ones so they get the chance to be measured.
+	 * nodes whose circuit is open are skipped unless all of them are open, in which case the
+	 * one closest to the end of its cool-down is tried ahead of time
+	 * 
+	 * @return the node to be probed
+	 */
+	public UrlNode select()
+	{
+		long now = System.currentTimeMillis();
+		for (int i = size(); i > 0; i--)
+		{
+			UrlNode nd = pick();
+			if (nd.admits(now)) return nd;
+		}
+		// the random policies may keep landing on open circuits so let's walk the whole list
+		UrlNode next = null;
+		for (int i = size(); i > 0; i--)
+		{
+			UrlNode nd = getNext();
+			if (nd.admits(now)) return nd;
+			if (next == null || nd.reopenAt < next.reopenAt) next = nd;
+		}
+		next.circuit = UrlNode.Circuit.HALF_OPEN;
+		return next;
+	}
+
+	private UrlNode pick()
+	{
+		switch (policy)
+		{
+		case "latency":
+			return selectByLatency();
+		case "two-choices":
+			return selectByTwoChoices();
+		case "least-recently-failed":
+			return selectByLeastRecentlyFailed();
+		default:
+			return getNext();
+		}
+	}
+
+	private UrlNode selectByLatency()
+	{
+		// the weight of each node is the inverse of its rtt (1 ms at least)
+		double total = 0;
+		for (UrlNode nd : innerList) total += weight(nd);
+		double r = ThreadLocalRandom.current().nextDouble(total);
+		for (UrlNode nd : innerList)
+		{
+			r -= weight(nd);
+			if (r < 0) return nd;
+		}
+		return getNext();
+	}
+
+	private static double weight(UrlNode nd)
+	{
+		return 1.0 / Math.max(1000000L, Math.max(0, nd.rtt));
+	}
+
+	private UrlNode selectByTwoChoices()
+	{
+		int n = innerList.size();
+		if (n < 2) return getNext();
+		int i = ThreadLocalRandom.current().nextInt(n), j = ThreadLocalRandom.current().nextInt(n - 1);
+		// j must not be the same as i
+		if (j >= i) j++;
+		UrlNode a = innerList.get(i), b = innerList.get(j);
+		return (a.rtt <= b.rtt ? a : b);
+	}
+
+	private UrlNode selectByLeastRecentlyFailed()
+	{
+		// the walk starts at the current position so nodes that never failed take turns
+		int n = innerList.size(), best = -1;
+		for (int i = 0; i < n; i++)
+		{
+			int k = (current + i) % n;
+			if (best < 0 || innerList.get(k).lastFailure < innerList.get(best).lastFailure) best = k;
+		}
+		if (best < 0) return getNext();
+		current = best + 1;
+		return innerList.get(best);
+	}
+
+	/**
+	 * looks for a node that is not being probed at the moment and marks it as busy.
+	 * the caller is in charge of releasing it afterwards
+	 * 
+	 * @return the node acquired or {@code null} if all of them are busy
+	 */
+	public UrlNode acquireNext()
+	{
+		for (int i = size(); i > 0; i--)
+		{
+			UrlNode nd = select();
+			if (nd.acquire()) return nd;
+		}
+		// the random policies may keep landing on busy nodes so let's walk the whole list
+		for (int i = size(); i > 0; i--)
+		{
+			UrlNode nd = getNext();
+			if (nd.acquire()) return nd;
+		}
+		return null;
+	}
+
+	// the list is read by other threads through snapshot() so changes must be synchronized
+	public synchronized void remove(UrlNode nd)
 	{
 		if (innerList.contains(nd)) innerList.remove(nd);
 	}
 
+	/**
+	 * @return a copy of the list safe to be walked by threads other than the monitor's one
+	 */
+	public synchronized List<UrlNode> snapshot()
+	{
+		return new ArrayList<UrlNode>(innerList);
+	}
+
 	@Override
 	public UrlCircularList clone()
 	{
-		return new UrlCircularList(innerList.stream().collect(Collectors.toList()), current);
+		UrlCircularList lst = new UrlCircularList(innerList.stream().collect(Collectors.toList()), current);
+		lst.policy = policy;
+		return lst;
 	}
 }
\ No newline at end of file
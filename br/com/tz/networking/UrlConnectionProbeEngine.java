@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.io.IOException;
+
+/**
+ * The original probing: an http connection is established through an
+ * HttpURLConnection object. Since it blocks, each probe running in the 
+ * background takes a thread of its own.
+ * 
+ * @author Fabio Tezedor
+ */
+final class UrlConnectionProbeEngine extends BlockingProbeEngine
+{
+	private static final UrlConnectionProbeEngine INSTANCE = new UrlConnectionProbeEngine();
+
+	private UrlConnectionProbeEngine()
+	{
+	}
+
+	static UrlConnectionProbeEngine getInstance()
+	{
+		return INSTANCE;
+	}
+
+	@Override
+	void reach(final UrlNode node) throws IOException
+	{
+		// HttpURLConnection cannot be bound to a local address
+		if ( node.localAddress != null ) SocketProbeEngine.getInstance().reach(node);
+		else node.probe();
+	}
+}
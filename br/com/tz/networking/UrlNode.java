@@ -22,21 +22,106 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 final class UrlNode
 {
-	public int failCounter = 0;
+	// states of the node's circuit breaker
+	public static enum Circuit
+	{
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	// time in milliseconds a connection attempt is allowed to take
+	public static final int CONNECT_TIMEOUT = 500;
+
+	// gives every node an id of its own
+	private static final AtomicInteger sequence = new AtomicInteger();
+
+	public final int id = sequence.incrementAndGet();
+	// the breaker's state is updated by the hedger's callbacks on the probes' threads. its 
+	// methods are synchronized on the node and the fields read outside them are volatile
+	public volatile int failCounter = 0;
 	public final String url;
-	public final HttpURLConnection conn;
+	private final URL u;
+	// urls other than http(s) ones (tcp://, dns://, ...) are reached by the probe handling their scheme
+	final Probe spi;
+	final java.net.URI target;
+	// host and port the url points to. they are used by probe engines that don't speak http
+	public final String host;
+	public final int port;
+	// set while a probe is in flight so the same connection is never used by two threads
+	private final AtomicBoolean busy = new AtomicBoolean(false);
+	// how many probes were made and how many bytes they cost (http requests and responses only, 
+	// tcp/tls overhead is not taken into account). probes can be completed by several threads
+	final AtomicLong probes = new AtomicLong(), bytesSent = new AtomicLong(), bytesReceived = new AtomicLong();
+	// how long each stage of the last probe took in microseconds. -1 means it was not measured
+	volatile long dnsTime = -1, tcpTime = -1, tlsTime = -1, firstByteTime = -1;
+	// ewma of the probes' round trip time in nanoseconds (-1 while unknown) and when the 
+	// last failure happened (0 if it never failed). they drive the choice of the next url
+	volatile long rtt = -1, lastFailure = 0;
+	// latencies of the successful probes
+	final LatencyHistogram latency = new LatencyHistogram();
+	// the circuit opens when the node times out too many times in a row and it stays so
+	// for a cool-down period (in milliseconds) that doubles every time a trial probe fails
+	volatile Circuit circuit = Circuit.CLOSED;
+	volatile long reopenAt = 0;
+	private volatile long coolDown = 0;
+	// settings of the monitor the node belongs to. each monitor may have its own
+	String method = InternetConnectivityMonitor.Configuration.probeMethod;
+	byte breakerThreshold = InternetConnectivityMonitor.Configuration.breakerThreshold;
+	short breakerCoolDown = InternetConnectivityMonitor.Configuration.breakerCoolDown, 
+			breakerMaxCoolDown = InternetConnectivityMonitor.Configuration.breakerMaxCoolDown;
+	// local address the probes are bound to, null means they go through the default route
+	java.net.InetAddress localAddress = null;
 
 	protected UrlNode(int counter, String url) throws MalformedURLException, IOException
 	{
 		this.failCounter = counter;
 		this.url = url;
-		this.conn = (java.net.HttpURLConnection) (new java.net.URL(url)).openConnection();
-		this.conn.setConnectTimeout(500);
-		this.conn.addRequestProperty("User-Agent", "Mozilla/4.0");
+		try
+		{
+			this.target = new java.net.URI(url);
+		}
+		catch (java.net.URISyntaxException e)
+		{
+			throw new MalformedURLException(e.getMessage());
+		}
+		String scheme = target.getScheme();
+		if ( scheme != null && !scheme.equalsIgnoreCase("http") && !scheme.equalsIgnoreCase("https") )
+		{
+			this.spi = Probes.forScheme(scheme);
+			if ( spi == null ) throw new MalformedURLException("no probe for the scheme: " + scheme);
+			this.u = null;
+			this.host = target.getHost();
+			if ( host == null && spi.requiresHost() ) throw new MalformedURLException("no host for the scheme: " + scheme);
+			this.port = (target.getPort() > 0 ? target.getPort() : spi.defaultPort());
+			if ( port <= 0 && spi.requiresPort() ) throw new MalformedURLException("no port for the scheme: " + scheme);
+			return;
+		}
+		this.spi = null;
+		this.u = new java.net.URL(url);
+		this.host = u.getHost();
+		this.port = (u.getPort() > 0 ? u.getPort() : u.getDefaultPort());
+		// make sure the url can be handled as an http one
+		open();
+	}
+
+	/**
+	 * a disconnected HttpURLConnection cannot be connected again (it keeps handing back
+	 * the very first response) so a brand new one is needed for every probe. creating it
+	 * is cheap since it doesn't touch the network
+	 */
+	private HttpURLConnection open() throws IOException
+	{
+		HttpURLConnection conn = (java.net.HttpURLConnection) u.openConnection();
+		conn.setConnectTimeout(CONNECT_TIMEOUT);
+		conn.addRequestProperty("User-Agent", "Mozilla/4.0");
+		return conn;
 	}
 
 	protected UrlNode(String url) throws MalformedURLException, IOException 
@@ -44,6 +129,225 @@ final class UrlNode
 		this(0,url);
 	}
 
+	/**
+	 * connects to the website and closes the connection right after. in HEAD mode
+	 * only the response headers are read, otherwise the response body is read through
+	 * 
+	 * @throws IOException if the website could not be reached
+	 */
+	public void probe() throws IOException
+	{
+		final boolean head = method.equalsIgnoreCase("HEAD");
+		long sent = 0, received = 0;
+
+		// resolving it beforehand tells a slow resolver apart from a slow website and,
+		// most of the time, the connection will find the address already cached
+		long t0 = System.nanoTime();
+		DnsCache.resolve(host);
+		long t1 = System.nanoTime();
+
+		HttpURLConnection conn = open();
+		try
+		{
+			conn.setRequestMethod(head ? "HEAD" : "GET");
+			conn.connect();
+			long t2 = System.nanoTime();
+			long body = 0;
+			if (head) conn.getResponseCode();
+			else body = skip(conn.getInputStream());
+			// for https the tls handshake is hidden inside connect()
+			stages(t1 - t0, (conn instanceof javax.net.ssl.HttpsURLConnection ? -1 : t2 - t1), -1, System.nanoTime() - t2);
+			sent = requestSize(method);
+			// the body is counted as it was read, whatever its length header said (if any)
+			received = headersSize(conn.getHeaderFields()) + body;
+		}
+		finally
+		{
+			conn.disconnect();
+			account(sent, received);
+		}
+	}
+
+	/**
+	 * reads the body through to its end and closes it
+	 * 
+	 * @return how many bytes it had
+	 */
+	private static long skip(final java.io.InputStream in) throws IOException
+	{
+		long n = 0;
+		try (java.io.InputStream is = in)
+		{
+			byte[] buffer = new byte[1024];
+			for (int r; (r = is.read(buffer)) >= 0; ) n += r;
+		}
+		return n;
+	}
+
+	/**
+	 * records how long each stage of the last probe took
+	 * 
+	 * @param dns - name resolution in nanoseconds (-1 if not measured)
+	 * @param tcp - tcp connection in nanoseconds (-1 if not measured)
+	 * @param tls - tls handshake in nanoseconds (-1 if not measured)
+	 * @param firstByte - time to the first byte of the response in nanoseconds (-1 if not measured)
+	 */
+	public void stages(long dns, long tcp, long tls, long firstByte)
+	{
+		dnsTime = (dns < 0 ? -1 : dns / 1000);
+		tcpTime = (tcp < 0 ? -1 : tcp / 1000);
+		tlsTime = (tls < 0 ? -1 : tls / 1000);
+		firstByteTime = (firstByte < 0 ? -1 : firstByte / 1000);
+	}
+
+	/**
+	 * records a successful probe
+	 * 
+	 * @param nanos - how long the probe took
+	 */
+	public synchronized void succeeded(long nanos)
+	{
+		rtt = (rtt < 0 ? nanos : (nanos + 4 * rtt) / 5);
+		latency.record(nanos);
+		LatencyHistogram.GLOBAL.record(nanos);
+		// the trial went well (or it was never open) so the node is back for good
+		if (circuit != Circuit.CLOSED)
+		{
+			circuit = Circuit.CLOSED;
+			coolDown = 0;
+		}
+	}
+
+	/**
+	 * records a probe that timed out. once the node times out too many times in a row 
+	 * its circuit is opened
+	 * 
+	 * @return {@code true} if the circuit has just been opened
+	 */
+	public synchronized boolean timedOut()
+	{
+		failCounter++;
+		if (circuit == Circuit.CLOSED && failCounter >= breakerThreshold)
+		{
+			openCircuit();
+			return true;
+		}
+		return false;
+	}
+
+	private synchronized void openCircuit()
+	{
+		long min = breakerCoolDown * 1000L, max = breakerMaxCoolDown * 1000L;
+		coolDown = (coolDown == 0 ? min : Math.min(max, coolDown * 2));
+		reopenAt = System.currentTimeMillis() + coolDown;
+		circuit = Circuit.OPEN;
+	}
+
+	/**
+	 * tells whether the node can be probed. an open circuit whose cool-down is over
+	 * turns half-open and the node is admitted for a trial probe
+	 * 
+	 * @param now - current time in milliseconds
+	 * @return {@code false} while the circuit is open
+	 */
+	public synchronized boolean admits(long now)
+	{
+		if (circuit != Circuit.OPEN) return true;
+		if (now < reopenAt) return false;
+		circuit = Circuit.HALF_OPEN;
+		return true;
+	}
+
+	/**
+	 * @return time in milliseconds the circuit is going to stay open for
+	 */
+	public long coolDown()
+	{
+		return coolDown;
+	}
+
+	/**
+	 * records a failed probe. failures weigh as much as a connection timing out.
+	 * if it was a trial probe, the circuit is opened once again
+	 */
+	public synchronized void failed()
+	{
+		lastFailure = System.currentTimeMillis();
+		rtt = (rtt < 0 ? CONNECT_TIMEOUT * 1000000L : (CONNECT_TIMEOUT * 1000000L + 4 * rtt) / 5);
+		if (circuit == Circuit.HALF_OPEN) openCircuit();
+	}
+
+	/**
+	 * adds a probe and its cost to the node's counters
+	 * 
+	 * @param sent - bytes sent
+	 * @param received - bytes received
+	 */
+	public void account(long sent, long received)
+	{
+		probes.incrementAndGet();
+		if (sent > 0) bytesSent.addAndGet(sent);
+		if (received > 0) bytesReceived.addAndGet(received);
+	}
+
+	/**
+	 * @return path and query of the url as they go in the request line
+	 */
+	public String path()
+	{
+		return (u.getFile().isEmpty() ? "/" : u.getFile());
+	}
+
+	/**
+	 * @param method - http method
+	 * @return the size of the request line plus the headers sent along with it, as an 
+	 *         HTTP/1.1 request with our own headers. it is an estimate: the engines may add 
+	 *         headers of their own and HTTP/2 compresses them
+	 */
+	public long requestSize(String method)
+	{
+		String path = path();
+		return method.length() + path.length() + 12 // ' ' + ' HTTP/1.1\r\n'
+				+ host.length() + 8                   // 'Host: ' + '\r\n'
+				+ 25                                  // 'User-Agent: Mozilla/4.0\r\n'
+				+ 2;                                  // '\r\n'
+	}
+
+	/**
+	 * @param headers - header fields. a {@code null} key stands for the status line
+	 * @return the size of the headers as they came through the wire (roughly)
+	 */
+	public static long headersSize(Map<String, List<String>> headers)
+	{
+		long n = 2;
+		for (Map.Entry<String, List<String>> e : headers.entrySet())
+		{
+			for (String v : e.getValue())
+			{
+				n += (e.getKey() == null ? 0 : e.getKey().length() + 2) + v.length() + 2;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * marks the node as being probed
+	 * 
+	 * @return {@code false} if the node is already being probed by another thread
+	 */
+	public boolean acquire()
+	{
+		return busy.compareAndSet(false, true);
+	}
+
+	/**
+	 * marks the node as free to be probed again
+	 */
+	public void release()
+	{
+		busy.set(false);
+	}
+
 	/**
 	 * creates a new instance of the UrlNode class
 	 * 
@@ -109,6 +413,38 @@ final class UrlNode
 		return urls.stream().map(u -> UrlNode.create(0,u)).filter(un -> un != null).collect(Collectors.toList());
 	}
 
+	/**
+	 * gets a {@code List<String>} and gives back a {@code List<UrlNode>} set up
+	 * according to a monitor's configuration
+	 * 
+	 * @param urls - the list of urls in string format
+	 * @param cfg - the configuration of the monitor the nodes belong to
+	 * @return {@code List<UrlNode>}
+	 */
+	static List<UrlNode> toList(List<String> urls, InternetConnectivityMonitorConfiguration cfg)
+	{
+		List<UrlNode> nodes = toList(urls);
+		java.net.InetAddress local = null;
+		try
+		{
+			local = Uplink.resolve(cfg.getBindAddress(), cfg.getBindInterface());
+		}
+		catch (IOException e)
+		{
+			// better through the default route than not at all
+			System.err.println("Probes cannot be bound: " + e.getMessage());
+		}
+		for (UrlNode nd : nodes)
+		{
+			nd.method = cfg.getProbeMethod();
+			nd.breakerThreshold = cfg.getBreakerThreshold();
+			nd.breakerCoolDown = cfg.getBreakerCoolDown();
+			nd.breakerMaxCoolDown = cfg.getBreakerMaxCoolDown();
+			nd.localAddress = local;
+		}
+		return nodes;
+	}
+
 	public String toString()
 	{
 		return "(url=" + url + ", counter=" + failCounter + ")";
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Fabio Tezedor <fabio@tezedor.com.br>
+ *
+ * Sun Oct 18 2026
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published by
+ * the Free Software Foundation.
+ * 
+ * https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ * 
+ * "Free software is a matter of liberty, not price. To understand the concept, 
+ * you should think of free as in free speech, not as in free beer." — Richard Stallman
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ */
+package br.com.tz.networking;
+
+import java.util.concurrent.ExecutorService;
+
+import br.com.tz.networking.InternetConnectivityMonitor.Configuration;
+
+/**
+ * Gives access to an executor that starts a virtual thread per task.<br />
+ * Virtual threads came with Java 21 while ICM still builds on older JDKs, 
+ * so the executor is looked up by reflection. On runtimes that lack it 
+ * the callers go on with their platform threads.
+ * 
+ * @author Fabio Tezedor
+ */
+final class VirtualThreads
+{
+	private static final ExecutorService es = create();
+
+	private VirtualThreads()
+	{
+	}
+
+	private static ExecutorService create()
+	{
+		try
+		{
+			return (ExecutorService) java.util.concurrent.Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if virtual threads were asked for and the runtime does support them
+	 */
+	static boolean enabled()
+	{
+		if ( !"virtual".equalsIgnoreCase(Configuration.threadMode) ) return false;
+		if ( es == null )
+		{
+			System.err.println("Virtual threads require Java 21 or later. Platform threads are going to be used instead.");
+			Configuration.threadMode = "platform";
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the executor that runs each task on a virtual thread of its own, 
+	 *         null if the runtime does not support them
+	 */
+	static ExecutorService executor()
+	{
+		return es;
+	}
+}